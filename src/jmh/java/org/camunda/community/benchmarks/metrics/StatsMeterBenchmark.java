@@ -0,0 +1,75 @@
+package org.camunda.community.benchmarks.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of counting one event (a started PI, a completed job) from many threads at once: the way
+ * {@code StatisticsCollector} did it before, marking a Dropwizard meter and incrementing a Micrometer counter,
+ * both looked up by name, against marking a {@link StatsMeter}. Reading the rate is in there as well, as the
+ * schedulers do that regularly.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:java@jmh -Dexec.args=StatsMeterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class StatsMeterBenchmark {
+
+    private MetricRegistry dropwizardRegistry;
+    private MeterRegistry micrometerRegistry;
+    private StatsMeter statsMeter;
+
+    @Setup
+    public void setUp() {
+        dropwizardRegistry = new MetricRegistry();
+        micrometerRegistry = new SimpleMeterRegistry();
+        // a few more meters, so the lookups don't hit a trivial registry
+        for (int i = 0; i < 50; i++) {
+            dropwizardRegistry.meter("other_" + i);
+            micrometerRegistry.counter("other_" + i);
+        }
+        statsMeter = new StatsMeter("pi_started", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void dropwizardAndMicrometerByName() {
+        dropwizardRegistry.meter("pi_started").mark();
+        micrometerRegistry.counter("pi_started").increment();
+    }
+
+    @Benchmark
+    public void statsMeter() {
+        statsMeter.mark();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double dropwizardOneMinuteRate() {
+        return dropwizardRegistry.meter("pi_started").getOneMinuteRate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double statsMeterOneMinuteRate() {
+        return statsMeter.getOneMinuteRate();
+    }
+}
@@ -1,5 +1,7 @@
 package org.camunda.community.benchmarks;
 
+import org.camunda.community.benchmarks.closedloop.ClosedLoopScheduler;
+import org.camunda.community.benchmarks.payload.PayloadSizeSweep;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -18,6 +20,9 @@ class BenchmarkApplication  {
         // Trigger here to make sure it happens AFTER the ApplicationContext is ready
         context.getBean(ProcessDeployer.class).autoDeploy();
         context.getBean(JobWorker.class).startWorkers();
+        // Only optional load models measuring from their first step on, which need the process and the workers
+        context.getBeanProvider(PayloadSizeSweep.class).ifAvailable(PayloadSizeSweep::start);
+        context.getBeanProvider(ClosedLoopScheduler.class).ifAvailable(ClosedLoopScheduler::start);
     }
 
 }
\ No newline at end of file
@@ -1,24 +1,48 @@
 package org.camunda.community.benchmarks;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
+import io.camunda.client.api.command.FailJobCommandStep1;
 import io.camunda.client.api.command.ThrowErrorCommandStep1;
 import io.camunda.client.exception.BpmnError;
 import io.camunda.client.jobhandling.CommandWrapper;
 import io.camunda.client.metrics.MetricsRecorder;
 import io.camunda.client.metrics.MicrometerMetricsRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Recorder;
+import org.camunda.community.benchmarks.activation.AdaptiveJobActivation;
+import org.camunda.community.benchmarks.activation.WorkerLoad;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.camunda.community.benchmarks.closedloop.ProcessInstanceCompletionTracker;
+import org.camunda.community.benchmarks.completion.CompletionAccounting;
+import org.camunda.community.benchmarks.completion.CompletionScheduler;
+import org.camunda.community.benchmarks.completion.DelayDistribution;
+import org.camunda.community.benchmarks.completion.FaultInjection;
+import org.camunda.community.benchmarks.completion.JobOutput;
+import org.camunda.community.benchmarks.completion.VirtualThreadJobExecutor;
 import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.config.JobTypeSettings;
+import org.camunda.community.benchmarks.metrics.CommandLatencyRecorder;
+import org.camunda.community.benchmarks.metrics.HdrIntervalLog;
+import org.camunda.community.benchmarks.refactoring.CommandCompletionListener;
 import org.camunda.community.benchmarks.refactoring.RefactoredCommandWrapper;
 import org.camunda.community.benchmarks.strategy.BenchmarkCompleteJobExceptionHandlingStrategy;
 import org.camunda.community.benchmarks.utils.BpmnJobTypeParser;
+import org.camunda.community.benchmarks.utils.JobVariables;
 import org.camunda.community.benchmarks.utils.JobTypeCounter;
+import org.camunda.community.benchmarks.workload.WorkloadMix;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.TaskScheduler;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import io.camunda.client.CamundaClient;
@@ -39,19 +63,34 @@ public class JobWorker {
     @Autowired
     private BenchmarkCompleteJobExceptionHandlingStrategy exceptionHandlingStrategy;
 
-    // TODO: Check if we can/need to check if the scheduler can catch up with all its work (or if it is overwhelmed)
+    // job_completion_tick_lag shows if it can catch up with all its work
     @Autowired
-    private TaskScheduler scheduler;
+    private CompletionScheduler scheduler;
 
     @Autowired
     private CamundaClient client;
 
+    @Autowired
+    private VirtualThreadJobExecutor virtualThreads;
+
+    @Autowired
+    private AdaptiveJobActivation adaptiveJobActivation;
+
     @Autowired
     private StatisticsCollector stats;
 
     @Autowired
     private MicrometerMetricsRecorder micrometerMetricsRecorder;
 
+    @Autowired
+    private CommandLatencyRecorder latencyRecorder;
+
+    @Autowired
+    private HdrIntervalLog intervalLog;
+
+    @Autowired
+    private ProcessInstanceCompletionTracker completionTracker;
+
     // currently only used when multipleJobTypes > 0
     // TODO make configurable to allow combinations with other features
     private String lastJobType;
@@ -59,19 +98,57 @@ public class JobWorker {
     // Package-private for testing
     void registerWorker(String jobType, Boolean markPiCompleted) {
 
-        long fixedBackOffDelay = config.getFixedBackOffDelay();
+        JobTypeSettings settings = settingsFor(jobType);
+        WorkerLoad load = null;
+        if (adaptiveJobActivation.isEnabled()) {
+            Duration timeout = settings.getTimeout() != null
+                    ? settings.getTimeout() : client.getConfiguration().getDefaultJobTimeout();
+            load = new WorkerLoad(timeout.toMillis());
+        }
+        SimpleDelayCompletionHandler handler = new SimpleDelayCompletionHandler(jobType, markPiCompleted, settings, load);
+
+        if (load != null) {
+            int maxJobsActive = settings.getMaxJobsActive() != null
+                    ? settings.getMaxJobsActive() : client.getConfiguration().getDefaultJobWorkerMaxJobsActive();
+            adaptiveJobActivation.register(jobType, maxJobsActive, load, handler.accounting,
+                    adaptedMaxJobsActive -> openWorker(jobType, markPiCompleted, settings, handler, adaptedMaxJobsActive));
+        } else {
+            openWorker(jobType, markPiCompleted, settings, handler, settings.getMaxJobsActive());
+        }
+    }
+
+    /**
+     * @param maxJobsActive {@code null} for the client's default
+     */
+    private io.camunda.client.api.worker.JobWorker openWorker(String jobType, boolean markPiCompleted,
+            JobTypeSettings settings, JobHandler handler, Integer maxJobsActive) {
+        long fixedBackOffDelay = settings.getFixedBackOffDelay() != null
+                ? settings.getFixedBackOffDelay() : config.getFixedBackOffDelay();
 
         JobWorkerBuilderStep1.JobWorkerBuilderStep3 step3 = client.newWorker()
                 .jobType(jobType)
-                .handler(new SimpleDelayCompletionHandler(markPiCompleted))
-                .name(jobType);
+                .handler(handler)
+                .name(jobType)
+                // the payload is never used by the workers, so it isn't even transferred
+                .fetchVariables(JobVariables.fetchVariables(markPiCompleted, config.isMeasureHopLatency()));
 
         if(fixedBackOffDelay > 0) {
             step3.backoffSupplier(new FixedBackoffSupplier(fixedBackOffDelay));
         }
+        if (maxJobsActive != null) {
+            step3.maxJobsActive(maxJobsActive);
+        }
+        if (settings.getTimeout() != null) {
+            step3.timeout(settings.getTimeout());
+        }
+        if (settings.getPollInterval() != null) {
+            step3.pollInterval(settings.getPollInterval());
+        }
+        if (settings.getStreamEnabled() != null) {
+            step3.streamEnabled(settings.getStreamEnabled());
+        }
 
-        step3.open();
-        stats.registerJobTypeTimer(jobType);
+        return step3.open();
     }
 
     // Don't do @PostConstruct as this is too early in the Spring lifecycle
@@ -86,10 +163,9 @@ public class JobWorker {
         Set<String> configJobTypes = new HashSet<>();
         
         // Extract job types from BPMN files if available
-        if (config.isAutoDeployProcess()
-            && config.getBpmnResource() != null
-            && config.getBpmnResource().length > 0) {
-            bpmnJobTypes = BpmnJobTypeParser.extractJobTypes(config.getBpmnResource());
+        Resource[] bpmnResources = WorkloadMix.bpmnResources(config);
+        if (config.isAutoDeployProcess() && bpmnResources.length > 0) {
+            bpmnJobTypes = BpmnJobTypeParser.extractJobTypes(bpmnResources);
         }
 
         // Always extract job types from configuration
@@ -126,6 +202,24 @@ public class JobWorker {
             totalWorkers, configJobTypes.size(), configDescription, bpmnOnlyJobTypes.size());
     }
 
+    /**
+     * @param jobType the effective job type, settings may also be given for it without the partition pinning prefix
+     * @return the settings of the job type, merged with the default entry
+     */
+    JobTypeSettings settingsFor(String jobType) {
+        Map<String, JobTypeSettings> allSettings = config.getJobTypeSettings();
+        JobTypeSettings settings = allSettings.get(jobType);
+        String starterPrefix = config.getStarterId() + "-";
+        if (settings == null && config.isEnablePartitionPinning() && jobType.startsWith(starterPrefix)) {
+            settings = allSettings.get(jobType.substring(starterPrefix.length()));
+        }
+        JobTypeSettings defaults = allSettings.get(JobTypeSettings.DEFAULT_KEY);
+        if (settings == null) {
+            return defaults != null ? defaults : new JobTypeSettings();
+        }
+        return settings.withDefaults(defaults);
+    }
+
     /**
      * Applies partition pinning to a job type if enabled.
      * @param jobType The original job type
@@ -175,50 +269,131 @@ public class JobWorker {
     public class SimpleDelayCompletionHandler implements JobHandler {
 
         private boolean markProcessInstanceCompleted;
-
-        public SimpleDelayCompletionHandler(boolean markProcessInstanceCompleted) {
+        private final DelayDistribution delayDistribution;
+        private final Timer delayTimer;
+        private final Timer jobTimer;
+        // only set with benchmark.hdrLogFile
+        private final Recorder jobTimeLog;
+        // null if the jobs are completed without variables
+        private final JobOutput output;
+        private final Counter outputBytes;
+        private final FaultInjection faults;
+        private final CompletionAccounting accounting;
+        // only set with benchmark.adaptiveJobActivation
+        private final WorkerLoad load;
+        private final String jobType;
+        // only set with benchmark.measureHopLatency
+        private final String hopVariablesPrefix;
+        private final ConcurrentMap<String, Timer> hopTimers = new ConcurrentHashMap<>();
+        private final Counter injectedFailures;
+        private final Counter injectedErrors;
+        private final Counter injectedTimeouts;
+
+        public SimpleDelayCompletionHandler(String jobType, boolean markProcessInstanceCompleted, JobTypeSettings settings,
+                                            WorkerLoad load) {
             this.markProcessInstanceCompleted = markProcessInstanceCompleted;
+            this.delayDistribution = DelayDistribution.of(settings.getDelay(), config.getTaskCompletionDelay());
+            this.delayTimer = stats.registerJobDelayTimer(jobType);
+            this.jobTimer = stats.registerJobTypeTimer(jobType);
+            this.jobTimeLog = intervalLog.recorder("job_timer." + jobType);
+            this.output = JobOutput.of(jobType, settings.getOutput());
+            this.outputBytes = output != null ? stats.registerJobOutputBytesCounter(jobType) : null;
+            this.faults = new FaultInjection(settings);
+            this.accounting = new CompletionAccounting(jobType, micrometerMetricsRecorder, stats);
+            scheduler.register(accounting);
+            this.load = load;
+            this.jobType = jobType;
+            this.hopVariablesPrefix = config.isMeasureHopLatency() ? JobVariables.hopVariablesPrefix(jobType) : null;
+            this.injectedFailures = faults.isEnabled() ? stats.registerInjectedFaultCounter(jobType, "fail") : null;
+            this.injectedErrors = faults.isEnabled() ? stats.registerInjectedFaultCounter(jobType, "error") : null;
+            this.injectedTimeouts = faults.isEnabled() ? stats.registerInjectedFaultCounter(jobType, "timeout") : null;
+            if (settings.getDelay() != null) {
+                LOG.info("Job type {} completes after a {} delay", jobType, settings.getDelay().getDistribution());
+            }
+            if (faults.isEnabled()) {
+                LOG.info("Job type {} injects faults: {}", jobType, faults);
+            }
+            if (output != null) {
+                LOG.info("Job type {} completes with {} variables ({} mode, {} bytes)", jobType,
+                        settings.getOutput().getVariables(), settings.getOutput().getMode(), output.getDocumentLength());
+            }
         }
 
         @Override
         public void handle(JobClient jobClient, ActivatedJob job) throws Exception {
             var jobStartTime = Instant.now().toEpochMilli();
+            if (load != null) {
+                load.onHandled(job);
+            }
             // Auto-complete logic from https://github.com/camunda-community-hub/spring-zeebe/blob/ec41c5af1f64e512c8e7a8deea2aeacb35e61a16/client/spring-zeebe/src/main/java/io/camunda/zeebe/spring/client/jobhandling/JobHandlerInvokingSpringBeans.java#L24
-            CompleteJobCommandStep1 completeCommand = jobClient.newCompleteCommand(job.getKey());
-            CommandWrapper command = new RefactoredCommandWrapper(
-                    (FinalCommandStep) completeCommand,
-                    job.getDeadline(),
-                    job.toString(),
-                    exceptionHandlingStrategy,
-                    micrometerMetricsRecorder,
-                    new MetricsRecorder.CounterMetricsContext("job_completion",
-                            Map.of("type", job.getType()), 1));
-            Map<String, Object> variables = job.getVariablesAsMap();
-            Long delay = config.getTaskCompletionDelay();
-            if (variables.containsKey("delay")) {
-                delay = 0L + (Integer) variables.get("delay");
+            FaultInjection.Outcome outcome = faults.next();
+            switch (outcome) {
+                case TIME_OUT -> {
+                    // not reacting at all, the job is activated again once it timed out
+                    injectedTimeouts.increment();
+                    return;
+                }
+                case FAIL -> injectedFailures.increment();
+                case THROW_ERROR -> injectedErrors.increment();
+                case COMPLETE -> { }
+            }
+            // with virtual threads, the handler blocks until the job was completed (or finally failed)
+            CompletableFuture<Void> acknowledged = virtualThreads.isEnabled() ? new CompletableFuture<>() : null;
+            CommandCompletionListener onAcknowledged = acknowledged == null ? null
+                    : (latencyNanos, error) -> acknowledged.complete(null);
+            CommandCompletionListener onCompleted = acknowledged == null ? accounting
+                    : (latencyNanos, error) -> {
+                        accounting.onCompletion(latencyNanos, error);
+                        acknowledged.complete(null);
+                    };
+            JobVariables variables = JobVariables.parse(job.getVariables());
+            if (hopVariablesPrefix != null && variables.previousJobType() != null && variables.previousCompletionMillis() != null) {
+                hopTimer(variables.previousJobType()).record(jobStartTime - variables.previousCompletionMillis(), TimeUnit.MILLISECONDS);
+            }
+            long delay;
+            if (variables.delay() != null) {
+                delay = variables.delay();
                 LOG.info("Worker " + job.getType() +" will complete in " +delay+ " MS");
                 
+            } else {
+                delay = delayDistribution.sampleMillis();
+            }
+            if (delayTimer != null) {
+                delayTimer.record(delay, TimeUnit.MILLISECONDS);
             }
-            // schedule the completion asynchronously with the configured delay
-            scheduler.schedule(new Runnable() {
+            Runnable completion = new Runnable() {
                 @Override
                 public void run() {
+                    if (outcome == FaultInjection.Outcome.FAIL) {
+                        failJob(jobClient, job, onAcknowledged);
+                        return;
+                    }
                     try {
-                        var jobType =job.getType();
-                        command.executeAsyncWithMetrics(MetricsRecorder::increaseCompleted);
+                        if (outcome == FaultInjection.Outcome.THROW_ERROR) {
+                            throw faults.nextError();
+                        }
+                        // success and failure are counted by the accounting, once per tick
+                        RefactoredCommandWrapper command = createCompleteCommand(jobClient, job, onCompleted);
+                        command.executeAsync();
+                        accounting.onSent();
 
                         var completionTime = Instant.now().toEpochMilli();
-                        stats.incCompletedJobs();
-                        stats.recordJobTypeCompletion(jobType,  completionTime-jobStartTime);
+                        jobTimer.record(completionTime - jobStartTime, TimeUnit.MILLISECONDS);
+                        if (jobTimeLog != null) {
+                            jobTimeLog.recordValue(TimeUnit.MILLISECONDS.toMicros(Math.max(0, completionTime - jobStartTime)));
+                        }
 
                         if (markProcessInstanceCompleted) {
-                            Object startEpochMillis = job.getVariablesAsMap().get(StartPiExecutor.BENCHMARK_START_DATE_MILLIS);
-                            if (startEpochMillis!=null && startEpochMillis instanceof Long) {
-                                stats.incCompletedProcessInstances((Long)startEpochMillis, completionTime);
+                            Long startEpochMillis = variables.startDateMillis();
+                            if (startEpochMillis != null) {
+                                // only set if the start was late, otherwise the intended start is the actual one
+                                long intendedStart = variables.intendedStartDateMillis() != null
+                                        ? variables.intendedStartDateMillis() : startEpochMillis;
+                                stats.incCompletedProcessInstances(job.getBpmnProcessId(), intendedStart, startEpochMillis, completionTime);
                             } else {
-                                stats.incCompletedProcessInstances();
+                                stats.incCompletedProcessInstances(job.getBpmnProcessId());
                             }
+                            completionTracker.onCompleted(job.getProcessInstanceKey());
                         }
                     }
                     catch (BpmnError bpmnError) {
@@ -229,11 +404,84 @@ public class JobWorker {
                                 exceptionHandlingStrategy,
                                 micrometerMetricsRecorder,
                                 new MetricsRecorder.CounterMetricsContext("job_error",
-                                        Map.of("type", job.getType(), "error", bpmnError.getErrorCode() + "-" + bpmnError.getErrorMessage()), 1));
+                                        Map.of("type", job.getType(), "error", bpmnError.getErrorCode() + "-" + bpmnError.getErrorMessage()), 1))
+                                .withLatencyRecorder(latencyRecorder, "ThrowError")
+                                .withCompletionListener(onAcknowledged);
                         command.executeAsyncWithMetrics(MetricsRecorder::increaseCompleted);
                     }
                 }
-            }, Instant.now().plusMillis(delay));
+            };
+            if (acknowledged != null) {
+                virtualThreads.execute(() -> {
+                    completion.run();
+                    acknowledged.join();
+                }, delay);
+            } else {
+                // schedule the completion asynchronously with the configured delay
+                scheduler.schedule(completion, delay);
+            }
+        }
+
+        private RefactoredCommandWrapper createCompleteCommand(JobClient jobClient, ActivatedJob job, CommandCompletionListener onCompleted) {
+            CompleteJobCommandStep1 completeCommand = jobClient.newCompleteCommand(job.getKey());
+            String variablesJson = completionVariables(job.getKey());
+            if (variablesJson != null) {
+                completeCommand = completeCommand.variables(variablesJson);
+            }
+            return new RefactoredCommandWrapper(
+                    (FinalCommandStep) completeCommand,
+                    job.getDeadline(),
+                    job.toString(),
+                    exceptionHandlingStrategy,
+                    micrometerMetricsRecorder,
+                    accounting.getContext())
+                    .withLatencyRecorder(latencyRecorder, "CompleteJob")
+                    .withCompletionListener(onCompleted);
+        }
+
+        /**
+         * @return the configured output, plus this job type and the completion time for the hop latency of the next job
+         */
+        private String completionVariables(long jobKey) {
+            String outputJson = output != null ? output.variablesFor(jobKey) : null;
+            if (outputJson != null) {
+                outputBytes.increment(outputJson.length());
+            }
+            if (hopVariablesPrefix == null) {
+                return outputJson;
+            }
+            long completionMillis = System.currentTimeMillis();
+            return outputJson == null
+                    ? hopVariablesPrefix + completionMillis + "}"
+                    : hopVariablesPrefix + completionMillis + "," + outputJson.substring(1);
+        }
+
+        private Timer hopTimer(String previousJobType) {
+            Timer timer = hopTimers.get(previousJobType);
+            if (timer == null) {
+                timer = hopTimers.computeIfAbsent(previousJobType, from -> stats.registerJobHopTimer(from, jobType));
+            }
+            return timer;
+        }
+
+        private void failJob(JobClient jobClient, ActivatedJob job, CommandCompletionListener onAcknowledged) {
+            FailJobCommandStep1.FailJobCommandStep2 failCommand = jobClient.newFailCommand(job.getKey())
+                    .retries(faults.retriesAfterFailure(job.getRetries()))
+                    .errorMessage("Failure injected by the benchmark");
+            if (faults.getRetryBackoff() != null) {
+                failCommand = failCommand.retryBackoff(faults.getRetryBackoff());
+            }
+            CommandWrapper command = new RefactoredCommandWrapper(
+                    failCommand,
+                    job.getDeadline(),
+                    job.toString(),
+                    exceptionHandlingStrategy,
+                    micrometerMetricsRecorder,
+                    new MetricsRecorder.CounterMetricsContext("job_failure",
+                            Map.of("type", job.getType()), 1))
+                    .withLatencyRecorder(latencyRecorder, "FailJob")
+                    .withCompletionListener(onAcknowledged);
+            command.executeAsyncWithMetrics(MetricsRecorder::increaseFailed);
         }
     }
 
@@ -10,6 +10,8 @@ import io.camunda.client.CamundaClient;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.workload.WorkloadMix;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -38,11 +40,12 @@ public class ProcessDeployer {
     public void autoDeploy() {
         if (config.isAutoDeployProcess()) {
             try {
-                LOG.info("Deploy " + StringUtils.arrayToCommaDelimitedString(config.getBpmnResource()) + " to Zeebe...");
+                Resource[] bpmnResources = WorkloadMix.bpmnResources(config);
+                LOG.info("Deploy " + StringUtils.arrayToCommaDelimitedString(bpmnResources) + " to Zeebe...");
                 DeployResourceCommandStep1.DeployResourceCommandStep2 deployResourceCommand = camundaClient.newDeployResourceCommand()
-                        .addResourceStream(adjustInputStreamBasedOnConfig(config.getBpmnResource()[0].getInputStream()), config.getBpmnResource()[0].getFilename()); // Have to add at least the first resource to have the right class of Step2
-                for (int i = 1; i < config.getBpmnResource().length; i++) { // now adding the rest of resources starting from 1
-                    deployResourceCommand = deployResourceCommand.addResourceStream(adjustInputStreamBasedOnConfig(config.getBpmnResource()[i].getInputStream()), config.getBpmnResource()[i].getFilename());
+                        .addResourceStream(adjustInputStreamBasedOnConfig(bpmnResources[0].getInputStream()), bpmnResources[0].getFilename()); // Have to add at least the first resource to have the right class of Step2
+                for (int i = 1; i < bpmnResources.length; i++) { // now adding the rest of resources starting from 1
+                    deployResourceCommand = deployResourceCommand.addResourceStream(adjustInputStreamBasedOnConfig(bpmnResources[i].getInputStream()), bpmnResources[i].getFilename());
                 }
                 deployResourceCommand.send().join();
             } catch (Exception ex) {
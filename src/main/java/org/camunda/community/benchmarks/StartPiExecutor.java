@@ -3,29 +3,49 @@ package org.camunda.community.benchmarks;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 
 import io.camunda.client.CamundaClient;
 import io.camunda.client.CamundaClientConfiguration;
+import io.camunda.client.api.command.CreateProcessInstanceCommandStep1;
 import io.camunda.client.api.command.FinalCommandStep;
+import io.camunda.client.api.command.PublishMessageCommandStep1;
 import io.camunda.client.api.response.ProcessInstanceEvent;
+import io.camunda.client.api.response.ProcessInstanceResult;
 import io.camunda.client.api.response.PublishMessageResponse;
 import io.camunda.client.jobhandling.CommandWrapper;
 import io.camunda.client.metrics.MetricsRecorder;
 import io.camunda.client.metrics.MicrometerMetricsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.camunda.community.benchmarks.closedloop.ClosedLoopScheduler;
 import org.camunda.community.benchmarks.common.BenchmarkExecutor;
 import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.config.WorkloadMixEntry;
+import org.camunda.community.benchmarks.flowcontrol.InFlightStartLimiter;
+import org.camunda.community.benchmarks.metrics.CommandLatencyRecorder;
 import org.camunda.community.benchmarks.partition.PartitionHashUtil;
+import org.camunda.community.benchmarks.payload.PayloadSource;
+import org.camunda.community.benchmarks.payload.PayloadTemplate;
 import org.camunda.community.benchmarks.refactoring.RefactoredCommandWrapper;
 import org.camunda.community.benchmarks.strategy.BenchmarkStartPiExceptionHandlingStrategy;
+import org.camunda.community.benchmarks.workload.AliasMethodSampler;
+import org.camunda.community.benchmarks.workload.WorkloadMix;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Component
 public class StartPiExecutor extends BenchmarkExecutor {
@@ -33,6 +53,8 @@ public class StartPiExecutor extends BenchmarkExecutor {
     private static final Logger LOG = LogManager.getLogger(StartPiExecutor.class);
     
     public static final String BENCHMARK_START_DATE_MILLIS = "benchmark_start_date_millis";
+    // only set if the PI was started later than the scheduler intended to
+    public static final String BENCHMARK_INTENDED_START_DATE_MILLIS = "benchmark_intended_start_date_millis";
     public static final Object BENCHMARK_STARTER_ID = "benchmark_starter_id";
     
     // Message name for partition pinning
@@ -53,24 +75,117 @@ public class StartPiExecutor extends BenchmarkExecutor {
     @Autowired
     private MicrometerMetricsRecorder micrometerMetricsRecorder;
 
-    private Map<String, Object> benchmarkPayload;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InFlightStartLimiter inFlightLimiter;
+
+    @Autowired
+    private StatisticsCollector stats;
+
+    @Autowired
+    private CommandLatencyRecorder latencyRecorder;
+
+    private PayloadTemplate payloadTemplate;
+
+    // the payload of benchmark.payloadPath, null if every process of the workload mix has its own
+    private PayloadSource defaultPayload;
+
+    private final List<PayloadSource> payloadSources = new ArrayList<>();
+
+    // picks the process (and its payload) of every start, see benchmark.workloadMix
+    private AliasMethodSampler<ProcessStart> workload;
     
+    // only set when benchmark.startWithResultRatio > 0, caps the starts awaiting their result
+    private Semaphore withResultPermits;
+
     // Partition pinning state
     private int[] targetPartitions = new int[0];
     private int numericClientId = 0;
     
     @PostConstruct
     public void init() throws IOException {
-        String variablesJsonString = tryReadVariables(config.getPayloadPath().getInputStream());
-        variablesJsonString = variablesJsonString.replace("${RANDOM_UUID}", UUID.randomUUID().toString());
-        benchmarkPayload = zeebeClientConfiguration.getJsonMapper().fromJsonAsMap(variablesJsonString);
+        payloadTemplate = new PayloadTemplate(config.getStarterId(), zeebeClientConfiguration.getJsonMapper());
+        Map<String, Double> weights = WorkloadMix.weights(config);
+        if (config.isEnablePartitionPinning() && WorkloadMix.isConfigured(config)) {
+            LOG.warn("benchmark.workloadMix is ignored with partition pinning, as all instances are started via the same message");
+            weights = Map.of(config.getBpmnProcessId(), 1.0);
+        }
+
+        Map<ProcessStart, Double> starts = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> weight : weights.entrySet()) {
+            String bpmnProcessId = weight.getKey();
+            WorkloadMixEntry entry = config.getWorkloadMix().get(bpmnProcessId);
+            PayloadSource payload = entry != null && entry.getPayloadPath() != null
+                    ? createPayloadSource(bpmnProcessId, entry.getPayloadPath())
+                    : getDefaultPayload();
+            starts.put(new ProcessStart(bpmnProcessId, payload), weight.getValue());
+            stats.registerProcess(bpmnProcessId);
+        }
+        workload = new AliasMethodSampler<>(starts);
+        if (WorkloadMix.isConfigured(config)) {
+            LOG.info("Starting a workload mix of {}", weights);
+        }
         
+        if (config.getStartWithResultRatio() > 0) {
+            if (config.isEnablePartitionPinning()) {
+                LOG.warn("benchmark.startWithResultRatio is ignored with partition pinning, as message starts have no result to await");
+            } else {
+                withResultPermits = new Semaphore(config.getMaxInFlightStartsWithResult());
+                meterRegistry.gauge("pi_with_result_inflight", withResultPermits,
+                        permits -> config.getMaxInFlightStartsWithResult() - permits.availablePermits());
+                LOG.info("Awaiting the result of {}% of the PI starts (max {} at a time)",
+                        config.getStartWithResultRatio() * 100, config.getMaxInFlightStartsWithResult());
+            }
+        }
+
         // Initialize partition pinning if enabled
         if (config.isEnablePartitionPinning()) {
             initializePartitionPinning();
         }
     }
     
+    private PayloadSource getDefaultPayload() throws IOException {
+        if (defaultPayload == null) {
+            defaultPayload = createPayloadSource("default", config.getPayloadPath());
+        }
+        return defaultPayload;
+    }
+
+    private PayloadSource createPayloadSource(String name, Resource payloadPath) throws IOException {
+        String variablesJsonString = tryReadVariables(payloadPath.getInputStream());
+        variablesJsonString = variablesJsonString.replace("${RANDOM_UUID}", UUID.randomUUID().toString());
+        PayloadSource payloadSource = new PayloadSource(name, variablesJsonString, config, payloadTemplate,
+                zeebeClientConfiguration.getJsonMapper(), meterRegistry);
+        payloadSources.add(payloadSource);
+        return payloadSource;
+    }
+
+    /**
+     * Switches all subsequent starts using {@code benchmark.payloadPath} to a different payload (used by the
+     * payload size sweep). Processes of the workload mix with their own payload keep it.
+     */
+    public void replacePayload(Map<String, Object> payload) {
+        checkPayloadReplaceable();
+        defaultPayload.replace(payload);
+    }
+
+    /**
+     * @throws IllegalStateException if {@link #replacePayload} can't be used with this configuration
+     */
+    public void checkPayloadReplaceable() {
+        if (defaultPayload == null) {
+            throw new IllegalStateException("No process of benchmark.workloadMix uses benchmark.payloadPath");
+        }
+        defaultPayload.checkReplaceable();
+    }
+
+    @PreDestroy
+    public void stop() {
+        payloadSources.forEach(PayloadSource::stop);
+    }
+
     private void initializePartitionPinning() {
         String starterId = config.getStarterId();
         if (starterId != null && !starterId.isEmpty()) {
@@ -91,34 +206,165 @@ public class StartPiExecutor extends BenchmarkExecutor {
 
     @Override
     public void startInstance() {
-      HashMap<Object, Object> variables = new HashMap<>(this.benchmarkPayload);
-        variables.put(BENCHMARK_START_DATE_MILLIS, Instant.now().toEpochMilli());
-        variables.put(BENCHMARK_STARTER_ID, config.getStarterId());
+        startInstance(Instant.now().toEpochMilli());
+    }
 
-        if (config.isEnablePartitionPinning()) {
-            startProcessInstanceViaMessage(variables);
+    /**
+     * @param intendedStartMillis when the scheduler's rate schedule intended this start to happen, so the time the
+     *                            scheduler fell behind (e.g. a stalled tick or a blocked in-flight window) is
+     *                            recorded as {@code pi_scheduler_lag} and included in {@code pi_cycletime_from_intended_start}
+     * @return whether the start was sent (and counted), {@code false} if interrupted while waiting for the
+     *         in-flight window
+     */
+    public boolean startInstance(long intendedStartMillis) {
+        ProcessStart start = workload.sample();
+        if (tryAcquireWithResultPermit()) {
+            countStarted(start);
+            try {
+                startProcessInstanceWithResult(start.bpmnProcessId(), nextVariables(start, intendedStartMillis));
+            } catch (RuntimeException e) {
+                withResultPermits.release();
+                throw e;
+            }
+            return true;
+        }
+
+        if (!inFlightLimiter.acquire()) {
+            return false;
+        }
+        countStarted(start);
+        try {
+            Object variables = nextVariables(start, intendedStartMillis);
+            if (config.isEnablePartitionPinning()) {
+                startProcessInstanceViaMessage(variables);
+            } else {
+                startProcessInstanceDirectly(start.bpmnProcessId(), variables);
+            }
+        } catch (RuntimeException e) {
+            // the command was never sent, so its completion will never release the permit
+            inFlightLimiter.release();
+            throw e;
+        }
+        return true;
+    }
+
+    private void countStarted(ProcessStart start) {
+        stats.incStartedProcessInstances();
+        stats.incStartedProcessInstancesOf(start.bpmnProcessId());
+    }
+
+    /**
+     * Starts one PI for a closed-loop virtual user (see {@link ClosedLoopScheduler}), outside of the in-flight
+     * and with-result caps, as the number of virtual users already bounds the concurrency. Not retried, the
+     * virtual user counts a failure and goes on.
+     *
+     * @param awaitResult whether to create the PI with result, so the future only completes once it finished
+     * @return the key of the started PI
+     */
+    public CompletableFuture<Long> startInstanceForVirtualUser(boolean awaitResult) {
+        ProcessStart start = workload.sample();
+        stats.incStartedProcessInstancesOf(start.bpmnProcessId());
+        // a virtual user starts right when it intends to, there is no schedule to fall behind
+        long startMillis = Instant.now().toEpochMilli();
+        CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3 createCommand =
+                createInstanceCommand(start.bpmnProcessId(), start.payload().next(startMillis, startMillis));
+        long startNanos = System.nanoTime();
+        CompletionStage<Long> processInstanceKey;
+        String operation;
+        if (awaitResult) {
+            operation = "CreateProcessInstanceWithResult";
+            processInstanceKey = createCommand.withResult()
+                    .fetchVariables(BENCHMARK_STARTER_ID.toString())
+                    .requestTimeout(Duration.ofMillis(config.getStartWithResultTimeoutMillis()))
+                    .send()
+                    .thenApply(ProcessInstanceResult::getProcessInstanceKey);
         } else {
-            startProcessInstanceDirectly(variables);
+            operation = "CreateProcessInstance";
+            processInstanceKey = createCommand.send().thenApply(ProcessInstanceEvent::getProcessInstanceKey);
         }
+        return processInstanceKey
+                .whenComplete((key, error) -> latencyRecorder.record(operation, error, System.nanoTime() - startNanos))
+                .toCompletableFuture();
     }
-    
-    private void startProcessInstanceDirectly(HashMap<Object, Object> variables) {
+
+    private Object nextVariables(ProcessStart start, long intendedStartMillis) {
+        long startMillis = Instant.now().toEpochMilli();
+        stats.recordSchedulerLag(startMillis - intendedStartMillis);
+        return start.payload().next(startMillis, intendedStartMillis);
+    }
+
+    /**
+     * Starts awaiting their result are capped separately from (and not counted in) the in-flight window of
+     * the {@link InFlightStartLimiter}, as they hold their permit for the whole process instance duration.
+     * If that cap is reached, the instance is just started normally instead.
+     */
+    private boolean tryAcquireWithResultPermit() {
+        return withResultPermits != null
+                && ThreadLocalRandom.current().nextDouble() < config.getStartWithResultRatio()
+                && withResultPermits.tryAcquire();
+    }
+
+    /**
+     * @param variables either a variables map, or an already encoded JSON document (String) from
+     *                  a {@link PayloadTemplate}, which must go through the String overload so
+     *                  the client doesn't serialize it again as a JSON string literal
+     */
+    private void startProcessInstanceDirectly(String bpmnProcessId, Object variables) {
         // Auto-complete logic from https://github.com/camunda-community-hub/spring-zeebe/blob/ec41c5af1f64e512c8e7a8deea2aeacb35e61a16/client/spring-zeebe/src/main/java/io/camunda/zeebe/spring/client/jobhandling/JobHandlerInvokingSpringBeans.java#L24
-        FinalCommandStep<ProcessInstanceEvent> createCommand = client.newCreateInstanceCommand()
-                .bpmnProcessId(config.getBpmnProcessId())
-                .latestVersion()
-                .variables(variables);
+        FinalCommandStep<ProcessInstanceEvent> createCommand = createInstanceCommand(bpmnProcessId, variables);
         CommandWrapper command = new RefactoredCommandWrapper(
                 createCommand,
                 System.currentTimeMillis() + 5 * 60 * 1000, // 5 minutes
-                "CreatePi" + config.getBpmnProcessId(),
+                "CreatePi" + bpmnProcessId,
                 exceptionHandlingStrategy, micrometerMetricsRecorder,
                 new MetricsRecorder.CounterMetricsContext("PI_action",
-                        Map.of("op", "start", "type", config.getBpmnProcessId()), 1));
+                        Map.of("op", "start", "type", bpmnProcessId), 1))
+                .withLatencyRecorder(latencyRecorder, "CreateProcessInstance")
+                .withCompletionListener(inFlightLimiter::release);
         command.executeAsyncWithMetrics(MetricsRecorder::increaseCompleted);
     }
     
-    private void startProcessInstanceViaMessage(HashMap<Object, Object> variables) {
+    /**
+     * Starts a process instance and awaits its completion, recording the time until the result arrived in
+     * {@code pi_cycletime_with_result}. This measures the end-to-end latency also for processes without a
+     * {@code *-completed} marker job.
+     * <p>
+     * Never retried: after a request timeout or an unavailable gateway, the instance may well be running already,
+     * so a retry would start a duplicate. A failure is only counted, like the rejected starts.
+     */
+    private void startProcessInstanceWithResult(String bpmnProcessId, Object variables) {
+        MetricsRecorder.CounterMetricsContext metricsContext = new MetricsRecorder.CounterMetricsContext("PI_action",
+                Map.of("op", "start_with_result", "type", bpmnProcessId), 1);
+        long startNanos = System.nanoTime();
+        createInstanceCommand(bpmnProcessId, variables)
+                .withResult()
+                // only one small variable, instead of the complete payload
+                .fetchVariables(BENCHMARK_STARTER_ID.toString())
+                .requestTimeout(Duration.ofMillis(config.getStartWithResultTimeoutMillis()))
+                .send()
+                .whenComplete((result, error) -> {
+                    long latencyNanos = System.nanoTime() - startNanos;
+                    withResultPermits.release();
+                    latencyRecorder.record("CreateProcessInstanceWithResult", error, latencyNanos);
+                    if (error == null) {
+                        micrometerMetricsRecorder.increaseCompleted(metricsContext);
+                        stats.recordProcessInstanceResult(latencyNanos);
+                    } else {
+                        exceptionHandlingStrategy.countException(error);
+                    }
+                });
+    }
+
+    private CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3 createInstanceCommand(String bpmnProcessId, Object variables) {
+        CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3 createStep = client.newCreateInstanceCommand()
+                .bpmnProcessId(bpmnProcessId)
+                .latestVersion();
+        return variables instanceof String json
+                ? createStep.variables(json)
+                : createStep.variables(variables);
+    }
+
+    private void startProcessInstanceViaMessage(Object variables) {
         // Select a random partition from our target partitions for load balancing
         int partition = PartitionHashUtil.selectRandomPartition(targetPartitions);
         
@@ -134,11 +380,13 @@ public class StartPiExecutor extends BenchmarkExecutor {
             correlationKey = "benchmark-fallback-p" + partition + "-" + UUID.randomUUID().toString();
         }
         
-        FinalCommandStep<PublishMessageResponse> publishCommand = client.newPublishMessageCommand()
+        PublishMessageCommandStep1.PublishMessageCommandStep3 publishStep = client.newPublishMessageCommand()
                 .messageName(PARTITION_PINNING_MESSAGE_NAME)
                 .correlationKey(correlationKey)
-                .timeToLive(Duration.ofMinutes(config.getMessagesTtl()))
-                .variables(variables);
+                .timeToLive(Duration.ofMinutes(config.getMessagesTtl()));
+        FinalCommandStep<PublishMessageResponse> publishCommand = variables instanceof String json
+                ? publishStep.variables(json)
+                : publishStep.variables(variables);
                 
         CommandWrapper command = new RefactoredCommandWrapper(
                 publishCommand,
@@ -146,10 +394,15 @@ public class StartPiExecutor extends BenchmarkExecutor {
                 "PublishMessage" + PARTITION_PINNING_MESSAGE_NAME,
                 exceptionHandlingStrategy, micrometerMetricsRecorder,
                 new MetricsRecorder.CounterMetricsContext("PI_action",
-                        Map.of("op", "start_message", "type", config.getBpmnProcessId()), 1));
+                        Map.of("op", "start_message", "type", config.getBpmnProcessId()), 1))
+                .withLatencyRecorder(latencyRecorder, "PublishMessage")
+                .withCompletionListener(inFlightLimiter::release);
         command.executeAsyncWithMetrics(MetricsRecorder::increaseCompleted);
         
         LOG.debug("Published message with correlation key {} targeting partition {}", 
                   correlationKey, partition);
     }
+
+    private record ProcessStart(String bpmnProcessId, PayloadSource payload) {
+    }
 }
@@ -15,7 +15,7 @@ import jakarta.annotation.PostConstruct;
 
 @Component
 @ConditionalOnProperty(name = "benchmark.startProcesses", havingValue = "true", matchIfMissing = true)
-@ConditionalOnExpression(FlowControlStrategyExpressions.IS_NOT_FLOW_CONTROL_STRATEGY)
+@ConditionalOnExpression(FlowControlStrategyExpressions.IS_CLASSIC_PI_SCHEDULER_STRATEGY)
 public class StartPiScheduler extends BenchmarkScheduler {
 
     private static final Logger LOG = LoggerFactory.getLogger(StartPiScheduler.class);
@@ -23,9 +23,6 @@ public class StartPiScheduler extends BenchmarkScheduler {
     @Autowired
     private BenchmarkConfiguration config;
 
-    @Autowired
-    private StatisticsCollector stats;
-
     @Autowired
     private StartPiExecutor executor;
 
@@ -36,10 +33,12 @@ public class StartPiScheduler extends BenchmarkScheduler {
 
     @Async
     @Override
-    protected void startInstances(long batchSize) {
+    protected void startInstances(long batchSize, long firstIntendedStartMillis, double intendedIntervalMillis) {
         for (int i = 0; i < batchSize; i++) {
-            executor.startInstance();
-            stats.incStartedProcessInstances();
+            if (!executor.startInstance(firstIntendedStartMillis + Math.round(i * intendedIntervalMillis))) {
+                // interrupted, the rest of the batch would not be sent either
+                return;
+            }
         }
     }
 }
@@ -1,31 +1,80 @@
 package org.camunda.community.benchmarks;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.flowcontrol.InFlightStartLimiter;
+import org.camunda.community.benchmarks.metrics.CommandLatencyRecorder;
+import org.camunda.community.benchmarks.metrics.HdrIntervalLog;
+import org.camunda.community.benchmarks.metrics.StatsMeter;
+import org.camunda.community.benchmarks.report.SnapshotRing;
+import org.camunda.community.benchmarks.report.StatsSnapshot;
+import org.camunda.community.benchmarks.report.TimeSeriesWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.codahale.metrics.Meter;
-import com.codahale.metrics.Snapshot;
-import com.codahale.metrics.Timer;
-
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import io.micrometer.core.instrument.search.MeterNotFoundException;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Component
 public class StatisticsCollector {
 
     private Date startTime = new Date();
 
-    // Leveraging Dropwizard here to do rate calculation within the app
-    private com.codahale.metrics.MetricRegistry dropwizardMetricRegistry = new com.codahale.metrics.MetricRegistry();
-    // But also the more modern Micrometer library, which can be exported to prometheus easily (using Spring Actuator)
+    // Micrometer, which can be exported to prometheus easily (using Spring Actuator)
     @Autowired
     private io.micrometer.core.instrument.MeterRegistry micrometerMetricRegistry;
 
+    // Counted once for the rate calculation within the app and the Micrometer export, see StatsMeter
+    private StatsMeter startedPiMeter;
+    private StatsMeter backpressureOnStartPiMeter;
+    private StatsMeter completedProcessInstancesMeter;
+    private StatsMeter completedJobsMeter;
+    private StatsMeter evaluatedDiMeter;
+    private StatsMeter startedDiMeter;
+    private StatsMeter backpressureOnStartDiMeter;
+
+    // Resolved once instead of looking them up by name for every PI
+    private io.micrometer.core.instrument.Timer cycleTimeTimer;
+    private io.micrometer.core.instrument.Timer cycleTimeFromIntendedStartTimer;
+    private io.micrometer.core.instrument.Timer schedulerLagTimer;
+    private io.micrometer.core.instrument.Timer cycleTimeWithResultTimer;
+
+    @Autowired
+    private CommandLatencyRecorder commandLatencyRecorder;
+
+    @Autowired
+    private HdrIntervalLog intervalLog;
+
+    @Autowired
+    private BenchmarkConfiguration config;
+
+    @Autowired
+    private InFlightStartLimiter inFlightStartLimiter;
+
+    // Per-second history for the benchmark report
+    private SnapshotRing snapshots;
+    // null unless benchmark.timeSeriesFile is set
+    private TimeSeriesWriter timeSeries;
+    private Recorder secondCycleTimes;
+    private Histogram secondCycleTimesInterval;
+    // null unless benchmark.hdrLogFile is set, in microseconds
+    private Recorder cycleTimeLog;
+
     private long lastPrintStartedProcessInstances = 0;
     private long lastPrintCompletedProcessInstances = 0;
     private long lastPrintCompletedJobs = 0;
@@ -33,9 +82,47 @@ public class StatisticsCollector {
 
     private long piPerSecondGoal;
 
+    // Interval recorders for consumers that need exact per-interval cycle time percentiles,
+    // which the decaying Dropwizard/Micrometer timers can't provide
+    private final List<Recorder> cycleTimeRecorders = new CopyOnWriteArrayList<>();
+
+    // Only for the processes registered by the StartPiExecutor, so unknown processes can't add meters
+    private final Map<String, ProcessMeters> processMeters = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init() {
-        io.micrometer.core.instrument.Timer.builder("pi_cycletime")
+        startedPiMeter = new StatsMeter("pi_started", micrometerMetricRegistry);
+        backpressureOnStartPiMeter = new StatsMeter("pi_backpressure", micrometerMetricRegistry);
+        completedProcessInstancesMeter = new StatsMeter("pi_completed", micrometerMetricRegistry);
+        completedJobsMeter = new StatsMeter("jobs_completed", micrometerMetricRegistry);
+        evaluatedDiMeter = new StatsMeter("di_evaluated", micrometerMetricRegistry);
+        startedDiMeter = new StatsMeter("di_started", micrometerMetricRegistry);
+        backpressureOnStartDiMeter = new StatsMeter("di_backpressure", micrometerMetricRegistry);
+        cycleTimeLog = intervalLog.recorder("pi_cycletime");
+        snapshots = new SnapshotRing(config.getStatsSnapshotSeconds());
+        if (config.getTimeSeriesFile() != null && !config.getTimeSeriesFile().isBlank()) {
+            secondCycleTimes = new Recorder(3);
+            cycleTimeRecorders.add(secondCycleTimes);
+            timeSeries = new TimeSeriesWriter(Path.of(config.getTimeSeriesFile()), config.getTimeSeriesFormat(),
+                    config.getTimeSeriesMaxFileSize().toBytes(), config.getTimeSeriesMaxFiles(),
+                    config.getTimeSeriesFlushIntervalMillis());
+            timeSeries.start();
+        }
+        cycleTimeTimer = io.micrometer.core.instrument.Timer.builder("pi_cycletime")
+                .publishPercentiles(0.75, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(micrometerMetricRegistry);
+        cycleTimeFromIntendedStartTimer = io.micrometer.core.instrument.Timer.builder("pi_cycletime_from_intended_start")
+                .description("PI cycle time measured from when the scheduler intended to start the PI")
+                .publishPercentiles(0.75, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(micrometerMetricRegistry);
+        schedulerLagTimer = io.micrometer.core.instrument.Timer.builder("pi_scheduler_lag")
+                .description("How much later than intended by the rate schedule PIs were started")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(micrometerMetricRegistry);
+        cycleTimeWithResultTimer = io.micrometer.core.instrument.Timer.builder("pi_cycletime_with_result")
+                .description("Time from sending a create-instance-with-result command until its result arrived")
                 .publishPercentiles(0.75, 0.95, 0.99)
                 .publishPercentileHistogram()
                 .register(micrometerMetricRegistry);
@@ -58,13 +145,14 @@ public class StatisticsCollector {
         } catch (MeterNotFoundException ignored) {
             // Ignore if meter not found
         }
+        System.out.println("  Scheduler lag: Mean: " + fd(schedulerLagTimer.mean(TimeUnit.MILLISECONDS)) + ". Max: " + fd(schedulerLagTimer.max(TimeUnit.MILLISECONDS)));
         lastPrintStartedProcessInstances = count;
         lastPrintStartedProcessInstancesBackpressure = backpressure;
         
         count = getCompletedProcessInstancesMeter().getCount();
         System.out.print("PI COMPLETED:   " + f(count) + " (+ " + f(count-lastPrintCompletedProcessInstances) + ") Last minute rate: " + f(getCompletedProcessInstancesMeter().getOneMinuteRate()));
-        Snapshot snapshot = getCompletedProcessInstancesTimer().getSnapshot();
-        System.out.println( ". Mean: " + fd(snapshot.getMean()/1000/1000) + ". Percentile .95: " + fd(snapshot.get95thPercentile()/1000/1000) + ". Percentile .99: " + fd(snapshot.get99thPercentile()/1000/1000));
+        HistogramSnapshot snapshot = cycleTimeTimer.takeSnapshot();
+        System.out.println( ". Mean: " + fd(snapshot.mean(TimeUnit.MILLISECONDS)) + ". Percentile .95: " + fd(percentile(snapshot, 0.95)) + ". Percentile .99: " + fd(percentile(snapshot, 0.99)));
         lastPrintCompletedProcessInstances = count;
 
         count = getCompletedJobsMeter().getCount();
@@ -79,6 +167,21 @@ public class StatisticsCollector {
             // Ignore if meter not found
         }
 
+        if (processMeters.size() > 1) {
+            processMeters.forEach((processId, meters) -> System.out.println("  Process [" + processId + "]: started "
+                    + f((long) meters.started().count()) + ", completed " + f((long) meters.completed().count())
+                    + ". Mean cycle time: " + fd(meters.cycleTime().mean(TimeUnit.MILLISECONDS))));
+        }
+
+        for (Map.Entry<String, Histogram> latency : commandLatencyRecorder.drainSinceLastPrint().entrySet()) {
+            Histogram histogram = latency.getValue();
+            System.out.println("COMMAND LATENCY [" + latency.getKey() + "]: " + f(histogram.getTotalCount())
+                    + ". Percentile .50: " + fms(histogram.getValueAtPercentile(50))
+                    + ". Percentile .99: " + fms(histogram.getValueAtPercentile(99))
+                    + ". Percentile .999: " + fms(histogram.getValueAtPercentile(99.9))
+                    + ". Max: " + fms(histogram.getMaxValue()) + " ms");
+        }
+
         /*backpressure = getBackpressureOnJobCompleteMeter().getCount();
         System.out.println("Backpressure:   " + f(backpressure) + " (+ " + f(backpressure - lastPrintCompletedJobsBackpressure) + ")");
         lastPrintCompletedJobsBackpressure = backpressure;
@@ -86,12 +189,63 @@ public class StatisticsCollector {
         
    }
 
+    @Scheduled(fixedRate = 1000)
+    public void takeSnapshot() {
+        StatsSnapshot snapshot = new StatsSnapshot(System.currentTimeMillis(), piPerSecondGoal, startedPiMeter.getCount(),
+                completedProcessInstancesMeter.getCount(), backpressureOnStartPiMeter.getCount(), completedJobsMeter.getCount());
+        snapshots.add(snapshot);
+        if (timeSeries != null) {
+            secondCycleTimesInterval = secondCycleTimes.getIntervalHistogram(secondCycleTimesInterval);
+            timeSeries.offer(new TimeSeriesWriter.Row(snapshot, inFlightStartLimiter.getInFlight(),
+                    secondCycleTimesInterval.getValueAtPercentile(50), secondCycleTimesInterval.getValueAtPercentile(99)));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (timeSeries != null) {
+            timeSeries.stop();
+        }
+    }
+
+    /**
+     * @return the snapshots of the last {@code benchmark.statsSnapshotSeconds}, one per second, oldest first
+     */
+    public List<StatsSnapshot> getSnapshots() {
+        return snapshots.toList();
+    }
+
+    /**
+     * @param meterName {@code pi_exception} or {@code jobs_exception}
+     * @return the count by exception, sorted
+     */
+    public Map<String, Long> getExceptionCounts(String meterName) {
+        Map<String, Long> counts = new TreeMap<>();
+        micrometerMetricRegistry.find(meterName).counters().forEach(counter ->
+                counts.merge(counter.getId().getTag("exception"), (long) counter.count(), Long::sum));
+        return counts;
+    }
+
+    // in milliseconds, of the percentiles published by the timer
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
     public String fpercent(double n) {
         return String.format("%5.3f", n);
     }
     public String fd(double n) {
         return String.format("%,.0f", n);
     }
+    // microseconds as milliseconds
+    public String fms(long micros) {
+        return String.format("%,.1f", micros / 1000.0);
+    }
     public String f(double n) {
         return String.format("%5.1f", n);
     }
@@ -103,53 +257,124 @@ public class StatisticsCollector {
         return (getBackpressureOnStartPiMeter().getOneMinuteRate() / getStartedPiMeter().getOneMinuteRate()) * 100;
     }
 
-    public Meter getStartedPiMeter() {
-        return dropwizardMetricRegistry.meter("pi_started" );
+    public StatsMeter getStartedPiMeter() {
+        return startedPiMeter;
     }
-    public Meter getCompletedJobsMeter() {
-        return dropwizardMetricRegistry.meter("jobs_completed" );
+    public StatsMeter getCompletedJobsMeter() {
+        return completedJobsMeter;
     }
-    public Meter getCompletedProcessInstancesMeter() {
-        return dropwizardMetricRegistry.meter("pi_completed" );
+    public StatsMeter getCompletedProcessInstancesMeter() {
+        return completedProcessInstancesMeter;
     }
-    public Timer getCompletedProcessInstancesTimer() {
-        return dropwizardMetricRegistry.timer("pi_cycletime");
-    }
-    public Meter getBackpressureOnStartPiMeter() {
-        return dropwizardMetricRegistry.meter("pi_backpressure" );
+    public StatsMeter getBackpressureOnStartPiMeter() {
+        return backpressureOnStartPiMeter;
     }
 
-    public Meter getEvaluatedDiMeter() { return dropwizardMetricRegistry.meter("di_evaluated" ); }
-    public Meter getStartedDiMeter() { return dropwizardMetricRegistry.meter("di_started" ); }
-    public Meter getBackpressureOnStartDiMeter() { return dropwizardMetricRegistry.meter("di_backpressure" ); }
+    public StatsMeter getEvaluatedDiMeter() { return evaluatedDiMeter; }
+    public StatsMeter getStartedDiMeter() { return startedDiMeter; }
+    public StatsMeter getBackpressureOnStartDiMeter() { return backpressureOnStartDiMeter; }
 
     public void hintOnNewPiPerSecondGoald(long piPerSecondGoal) {
         this.piPerSecondGoal = piPerSecondGoal;
     }
 
     public void incStartedProcessInstances() {
-        getStartedPiMeter().mark();
-        micrometerMetricRegistry.counter("pi_started").increment();
+        startedPiMeter.mark();
     }
 
     public void incStartedProcessInstancesBackpressure() {
-        getBackpressureOnStartPiMeter().mark();
-        micrometerMetricRegistry.counter("pi_backpressure").increment();
+        backpressureOnStartPiMeter.mark();
     }
 
     public void incCompletedProcessInstances() {
-        getCompletedProcessInstancesMeter().mark();
-        micrometerMetricRegistry.counter("pi_completed").increment();
+        completedProcessInstancesMeter.mark();
     }
     public void incCompletedProcessInstances(long startMillis, long endMillis) {
         incCompletedProcessInstances();
-        getCompletedProcessInstancesTimer().update(endMillis - startMillis, TimeUnit.MILLISECONDS);
-        micrometerMetricRegistry.timer("pi_cycletime").record(endMillis - startMillis, TimeUnit.MILLISECONDS);
+        cycleTimeTimer.record(endMillis - startMillis, TimeUnit.MILLISECONDS);
+        for (Recorder recorder : cycleTimeRecorders) {
+            recorder.recordValue(Math.max(0, endMillis - startMillis));
+        }
+        if (cycleTimeLog != null) {
+            cycleTimeLog.recordValue(TimeUnit.MILLISECONDS.toMicros(Math.max(0, endMillis - startMillis)));
+        }
+    }
+
+    /**
+     * Creates the {@code pi_started_by_process}, {@code pi_completed_by_process} and
+     * {@code pi_cycletime_by_process} meters tagged with the given process ID.
+     */
+    public void registerProcess(String bpmnProcessId) {
+        processMeters.computeIfAbsent(bpmnProcessId, processId -> new ProcessMeters(
+                micrometerMetricRegistry.counter("pi_started_by_process", "process", processId),
+                micrometerMetricRegistry.counter("pi_completed_by_process", "process", processId),
+                io.micrometer.core.instrument.Timer.builder("pi_cycletime_by_process")
+                        .tag("process", processId)
+                        .publishPercentiles(0.75, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(micrometerMetricRegistry)));
+    }
+
+    /**
+     * Counts a started PI of a registered process only, the overall count is done by the schedulers.
+     */
+    public void incStartedProcessInstancesOf(String bpmnProcessId) {
+        ProcessMeters meters = processMeters(bpmnProcessId);
+        if (meters != null) {
+            meters.started().increment();
+        }
+    }
+
+    public void incCompletedProcessInstances(String bpmnProcessId) {
+        incCompletedProcessInstances();
+        ProcessMeters meters = processMeters(bpmnProcessId);
+        if (meters != null) {
+            meters.completed().increment();
+        }
+    }
+
+    /**
+     * @param intendedStartMillis when the scheduler intended to start the PI, see {@link StartPiExecutor#startInstance(long)}
+     */
+    public void incCompletedProcessInstances(String bpmnProcessId, long intendedStartMillis, long startMillis, long endMillis) {
+        incCompletedProcessInstances(bpmnProcessId, startMillis, endMillis);
+        cycleTimeFromIntendedStartTimer.record(endMillis - Math.min(intendedStartMillis, startMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public void incCompletedProcessInstances(String bpmnProcessId, long startMillis, long endMillis) {
+        incCompletedProcessInstances(startMillis, endMillis);
+        ProcessMeters meters = processMeters(bpmnProcessId);
+        if (meters != null) {
+            meters.completed().increment();
+            meters.cycleTime().record(endMillis - startMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private ProcessMeters processMeters(String bpmnProcessId) {
+        return bpmnProcessId == null ? null : processMeters.get(bpmnProcessId);
+    }
+
+    public void recordSchedulerLag(long lagMillis) {
+        schedulerLagTimer.record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordProcessInstanceResult(long latencyNanos) {
+        cycleTimeWithResultTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers a recorder that receives every PI cycle time (in milliseconds) from now on.
+     */
+    public void addCycleTimeRecorder(Recorder recorder) {
+        cycleTimeRecorders.add(recorder);
     }
 
     public void incCompletedJobs() {
-        getCompletedJobsMeter().mark();
-        micrometerMetricRegistry.counter("jobs_completed").increment();
+        completedJobsMeter.mark();
+    }
+
+    public void incCompletedJobs(long count) {
+        completedJobsMeter.mark(count);
     }
 
     public double incStartedProcessInstancesException(String exceptionMessage) {
@@ -163,33 +388,80 @@ public class StatisticsCollector {
         counter.increment();
         return counter.count();
     }
-    public void registerJobTypeTimer(String jobType) {
-        io.micrometer.core.instrument.Timer.builder("job_timer_"+jobType)
+    /**
+     * @return the timer of the time from handling the jobs of the type until their completion was sent,
+     * resolved once by the worker so completions record without building names or looking up meters
+     */
+    public io.micrometer.core.instrument.Timer registerJobTypeTimer(String jobType) {
+        return io.micrometer.core.instrument.Timer.builder("job_timer")
+                .description("Time from handling a job until its completion was sent")
+                .tag("type", jobType)
                 .publishPercentiles(0.75, 0.95, 0.99)
                 .publishPercentileHistogram()
                 .register(micrometerMetricRegistry);
     }
-    public void recordJobTypeCompletion(String jobType, long executionDurationMillis){
-        io.micrometer.core.instrument.Timer timer = micrometerMetricRegistry.timer("job_timer_"+jobType);
-        timer.record(executionDurationMillis, TimeUnit.MILLISECONDS );
+    /**
+     * @return the timer of the delays the workers of the job type waited before completing, i.e. the simulated
+     * worker time (without the engine's time to activate the job and process its completion)
+     */
+    public io.micrometer.core.instrument.Timer registerJobDelayTimer(String jobType) {
+        return io.micrometer.core.instrument.Timer.builder("job_delay")
+                .description("Completion delay of the jobs, sampled from the delay distribution of their type")
+                .tag("type", jobType)
+                .publishPercentiles(0.5, 0.95, 0.99, 0.999)
+                .register(micrometerMetricRegistry);
+    }
+
+    public io.micrometer.core.instrument.Counter registerJobOutputBytesCounter(String jobType) {
+        return io.micrometer.core.instrument.Counter.builder("job_output_bytes")
+                .description("Size of the variables the jobs were completed with")
+                .baseUnit("bytes")
+                .tag("type", jobType)
+                .register(micrometerMetricRegistry);
+    }
+
+    /**
+     * @param fault what was injected instead of completing the job: fail, error or timeout
+     */
+    public io.micrometer.core.instrument.Counter registerInjectedFaultCounter(String jobType, String fault) {
+        return io.micrometer.core.instrument.Counter.builder("job_injected_fault")
+                .description("Jobs the workers deliberately didn't complete")
+                .tag("type", jobType)
+                .tag("fault", fault)
+                .register(micrometerMetricRegistry);
+    }
+
+    /**
+     * @return the timer of the engine latency from completing a job of the one type until the next job of the PI,
+     * of the other type, was activated (see benchmark.measureHopLatency)
+     */
+    public io.micrometer.core.instrument.Timer registerJobHopTimer(String fromJobType, String toJobType) {
+        return io.micrometer.core.instrument.Timer.builder("job_hop_latency")
+                .description("Time from completing a job until the next job of the PI was activated")
+                .tag("from", fromJobType)
+                .tag("to", toJobType)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(micrometerMetricRegistry);
     }
 
     public void incEvaluatedDecisionInstances() {
-        getEvaluatedDiMeter().mark();
-        micrometerMetricRegistry.counter("di_evaluated").increment();
+        evaluatedDiMeter.mark();
     }
 
     public void incStartedDecisionInstances() {
-        getStartedDiMeter().mark();
-        micrometerMetricRegistry.counter("di_started").increment();
+        startedDiMeter.mark();
     }
 
     public void incStartedDecisionInstancesBackpressure() {
-        getBackpressureOnStartDiMeter().mark();
-        micrometerMetricRegistry.counter("di_backpressure").increment();
+        backpressureOnStartDiMeter.mark();
     }
 
     public void incStartedDecisionInstancesException(String exceptionMessage) {
         micrometerMetricRegistry.counter("di_exception", "exception", exceptionMessage).increment();
     }
+
+    private record ProcessMeters(io.micrometer.core.instrument.Counter started,
+                                 io.micrometer.core.instrument.Counter completed,
+                                 io.micrometer.core.instrument.Timer cycleTime) {
+    }
 }
@@ -0,0 +1,139 @@
+package org.camunda.community.benchmarks.activation;
+
+import io.camunda.client.api.worker.JobWorker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.camunda.community.benchmarks.completion.CompletionAccounting;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Tunes {@code maxJobsActive} of every worker at runtime with {@code benchmark.adaptiveJobActivation}, instead of
+ * guessing it upfront: every {@code benchmark.adaptiveJobActivationIntervalMillis}, the {@link JobActivationController}
+ * decides on a new value from the queueing delay of the worker's jobs ({@link WorkerLoad}), and from its failed and
+ * still pending complete commands ({@link CompletionAccounting}), within {@code benchmark.adaptiveMinJobsActive} and
+ * {@code benchmark.adaptiveMaxJobsActive}. Every worker is only throttled by its own backlog, so one slow job type
+ * doesn't hold back the others.
+ * <p>
+ * A job worker can't be changed once it's open, so it's closed and opened again with the new value. To not do
+ * that all the time, only changes of at least {@value #MIN_CHANGE_PERCENT}% (or to a bound) are applied. Jobs
+ * already activated by the closed worker are still handled. The gauge {@code job_worker_max_jobs_active{type}}
+ * shows the current value of every worker.
+ */
+@Component
+public class AdaptiveJobActivation {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveJobActivation.class);
+    static final int MIN_CHANGE_PERCENT = 10;
+
+    private final boolean enabled;
+    private final JobActivationController controller;
+    private final MeterRegistry meterRegistry;
+    private final List<AdaptiveWorker> workers = new CopyOnWriteArrayList<>();
+
+    public AdaptiveJobActivation(BenchmarkConfiguration config, MeterRegistry meterRegistry) {
+        this.enabled = config.isAdaptiveJobActivation();
+        this.controller = enabled ? new JobActivationController(config.getAdaptiveMinJobsActive(),
+                config.getAdaptiveMaxJobsActive(), config.getTargetJobQueueDelayMillis(),
+                config.getMaxJobCompletionErrorRatio()) : null;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the worker and tunes it from now on.
+     *
+     * @param initialMaxJobsActive the configured value, brought within the bounds
+     * @param opener               opens a new worker for the job type with the given maxJobsActive
+     */
+    public void register(String jobType, int initialMaxJobsActive, WorkerLoad load, CompletionAccounting accounting,
+                         IntFunction<JobWorker> opener) {
+        int maxJobsActive = controller.clamp(initialMaxJobsActive);
+        AdaptiveWorker worker = new AdaptiveWorker(jobType, load, accounting, opener, maxJobsActive,
+                opener.apply(maxJobsActive));
+        workers.add(worker);
+        Gauge.builder("job_worker_max_jobs_active", worker, w -> w.maxJobsActive)
+                .description("The maxJobsActive the worker currently activates jobs with")
+                .tag("type", jobType)
+                .register(meterRegistry);
+        LOG.info("Job type {} starts with maxJobsActive {}, tuned adaptively", jobType, maxJobsActive);
+    }
+
+    @Scheduled(fixedRateString = "${benchmark.adaptiveJobActivationIntervalMillis:30000}",
+            initialDelayString = "${benchmark.adaptiveJobActivationIntervalMillis:30000}")
+    public void adjust() {
+        long now = System.nanoTime();
+        for (AdaptiveWorker worker : workers) {
+            worker.adjust(now);
+        }
+    }
+
+    private class AdaptiveWorker {
+
+        private final String jobType;
+        private final WorkerLoad load;
+        private final CompletionAccounting accounting;
+        private final IntFunction<JobWorker> opener;
+        private volatile int maxJobsActive;
+        private JobWorker worker;
+        private long lastSucceeded;
+        private long lastFailed;
+        private long lastAdjustNanos = System.nanoTime();
+
+        AdaptiveWorker(String jobType, WorkerLoad load, CompletionAccounting accounting, IntFunction<JobWorker> opener,
+                       int maxJobsActive, JobWorker worker) {
+            this.jobType = jobType;
+            this.load = load;
+            this.accounting = accounting;
+            this.opener = opener;
+            this.maxJobsActive = maxJobsActive;
+            this.worker = worker;
+        }
+
+        void adjust(long nowNanos) {
+            Histogram queueDelay = load.interval();
+            long sent = accounting.getSentTotal();
+            long succeeded = accounting.getSucceededTotal();
+            long failed = accounting.getFailedTotal();
+            long queueDelayP99 = queueDelay.getValueAtPercentile(99);
+            long backlogMillis = JobActivationController.completionBacklogMillis(sent - succeeded - failed,
+                    succeeded - lastSucceeded + failed - lastFailed, TimeUnit.NANOSECONDS.toMillis(nowNanos - lastAdjustNanos));
+            int next = controller.next(maxJobsActive, queueDelay.getTotalCount(), queueDelayP99,
+                    succeeded - lastSucceeded, failed - lastFailed, backlogMillis);
+            LOG.debug("Job type {}: {} jobs handled, p99 queue delay {} ms, {} completed, {} failed, completion backlog {} ms, next maxJobsActive {}",
+                    jobType, queueDelay.getTotalCount(), queueDelayP99, succeeded - lastSucceeded, failed - lastFailed,
+                    backlogMillis, next);
+            lastSucceeded = succeeded;
+            lastFailed = failed;
+            lastAdjustNanos = nowNanos;
+            if (!isSignificant(maxJobsActive, next)) {
+                return;
+            }
+            LOG.info("Reopening worker of job type {} with maxJobsActive {} (was {}, p99 queue delay {} ms)",
+                    jobType, next, maxJobsActive, queueDelayP99);
+            worker.close();
+            worker = opener.apply(next);
+            maxJobsActive = next;
+        }
+
+        private boolean isSignificant(int current, int next) {
+            if (next == current) {
+                return false;
+            }
+            return Math.abs(next - current) * 100L >= (long) current * MIN_CHANGE_PERCENT
+                    || next == controller.clamp(Integer.MIN_VALUE) || next == controller.clamp(Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.camunda.community.benchmarks.activation;
+
+/**
+ * Decides the next {@code maxJobsActive} of a worker from what happened during the last interval, additive
+ * increase / multiplicative decrease style: if jobs wait too long for their handler, completions fail, or the
+ * worker's own complete commands back up, the worker gets {@value #DECREASE_FACTOR} of its current value. If it's
+ * healthy and had work, it gets {@value #INCREASE_FACTOR} times its current value (at least one more). Workers
+ * without any jobs keep their value. The result is always within the bounds.
+ */
+class JobActivationController {
+
+    static final double DECREASE_FACTOR = 0.7;
+    static final double INCREASE_FACTOR = 1.25;
+
+    private final int min;
+    private final int max;
+    private final long targetQueueDelayMillis;
+    private final double maxErrorRatio;
+
+    JobActivationController(int min, int max, long targetQueueDelayMillis, double maxErrorRatio) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("The maxJobsActive bounds must be 1 <= min <= max, but are "
+                    + min + " and " + max);
+        }
+        this.min = min;
+        this.max = max;
+        this.targetQueueDelayMillis = targetQueueDelayMillis;
+        this.maxErrorRatio = maxErrorRatio;
+    }
+
+    /**
+     * @param current               the current maxJobsActive of the worker
+     * @param handled               jobs whose handler ran during the interval
+     * @param queueDelayP99Millis   99th percentile of their delay from activation until the handler ran
+     * @param completed             complete commands acknowledged during the interval
+     * @param failed                complete commands that failed during the interval
+     * @param completionBacklogMillis how long the pending complete commands of the worker wait for their
+     *                                acknowledgement, see {@link #completionBacklogMillis}
+     * @return the maxJobsActive for the next interval
+     */
+    int next(int current, long handled, long queueDelayP99Millis, long completed, long failed, long completionBacklogMillis) {
+        long commands = completed + failed;
+        boolean overloaded = queueDelayP99Millis > targetQueueDelayMillis
+                || (commands > 0 && (double) failed / commands > maxErrorRatio)
+                || completionBacklogMillis > targetQueueDelayMillis;
+        int next;
+        if (overloaded) {
+            next = (int) (current * DECREASE_FACTOR);
+        } else if (handled > 0) {
+            next = (int) Math.min(Integer.MAX_VALUE, Math.max(current + 1L, (long) (current * INCREASE_FACTOR)));
+        } else {
+            next = current;
+        }
+        return clamp(next);
+    }
+
+    /**
+     * Little's law: the complete commands still pending, divided by the rate at which they were acknowledged.
+     *
+     * @param pending      complete commands sent, but not acknowledged yet
+     * @param acknowledged complete commands acknowledged (successfully or not) during the interval
+     * @return how long the pending complete commands wait, the whole interval if none was acknowledged
+     */
+    static long completionBacklogMillis(long pending, long acknowledged, long intervalMillis) {
+        if (pending <= 0) {
+            return 0;
+        }
+        if (acknowledged <= 0) {
+            return intervalMillis;
+        }
+        return Math.min(intervalMillis, pending * intervalMillis / acknowledged);
+    }
+
+    int clamp(int maxJobsActive) {
+        return Math.max(min, Math.min(max, maxJobsActive));
+    }
+}
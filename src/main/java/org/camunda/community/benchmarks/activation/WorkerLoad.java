@@ -0,0 +1,48 @@
+package org.camunda.community.benchmarks.activation;
+
+import io.camunda.client.api.response.ActivatedJob;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one worker sees of its load: the delay from the activation of every job until its handler runs. The
+ * activation time isn't part of the job, but its deadline is the activation time plus the job timeout, so the
+ * delay is {@code now - (deadline - timeout)}. This relies on the clocks of the broker and the worker being in
+ * sync; negative delays (worker clock behind) are recorded as 0.
+ * <p>
+ * Jobs activated by a worker wait in the client's job executor until a thread is free to run their handler.
+ * The more jobs a worker activates at once, the longer the later ones wait, while their timeout is already running.
+ */
+public class WorkerLoad {
+
+    // everything above is recorded as this value
+    private static final long HIGHEST_TRACKABLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final long timeoutMillis;
+    private final Recorder queueDelay = new Recorder(HIGHEST_TRACKABLE_MILLIS, 2);
+    // only used by the thread calling interval()
+    private Histogram recycled;
+
+    public WorkerLoad(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Called by the handler as soon as it runs.
+     */
+    public void onHandled(ActivatedJob job) {
+        long activatedMillis = job.getDeadline() - timeoutMillis;
+        long delay = System.currentTimeMillis() - activatedMillis;
+        queueDelay.recordValue(Math.min(Math.max(0, delay), HIGHEST_TRACKABLE_MILLIS));
+    }
+
+    /**
+     * @return the queue delays (in milliseconds) recorded since the last call, valid until the next call
+     */
+    Histogram interval() {
+        recycled = queueDelay.getIntervalHistogram(recycled);
+        return recycled;
+    }
+}
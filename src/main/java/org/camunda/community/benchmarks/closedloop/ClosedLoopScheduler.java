@@ -0,0 +1,240 @@
+package org.camunda.community.benchmarks.closedloop;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.camunda.community.benchmarks.StartPiExecutor;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.config.FlowControlStrategyExpressions;
+import org.camunda.community.benchmarks.strategy.BenchmarkStartPiExceptionHandlingStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load model for the {@code closedLoop} strategy: instead of starting PIs at a given rate, a number
+ * of virtual users (one virtual thread each) start a PI, wait until it finished, think for
+ * {@code benchmark.virtualUserThinkTimeMillis} and start the next one. The throughput then follows from how
+ * fast the cluster completes the instances, which answers how many concurrent users it sustains.
+ * <p>
+ * A PI counts as finished once its create-with-result command returned ({@code benchmark.virtualUserCompletion=result})
+ * or once its completion job was worked on by this starter ({@code job}, see {@link ProcessInstanceCompletionTracker}).
+ * <p>
+ * The number of users is ramped up from {@code benchmark.initialVirtualUsers} by {@code benchmark.virtualUsersIncrement}
+ * every {@code benchmark.virtualUsersStepDurationMillis} until {@code benchmark.virtualUsers} is reached. At the end of
+ * every step, the throughput (overall and per user) and the PI latency of that step are logged. Exposes the gauges
+ * {@code closed_loop_users} and {@code closed_loop_throughput_per_user}, the timer {@code closed_loop_latency} and
+ * the counter {@code closed_loop_errors}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark.startProcesses", havingValue = "true", matchIfMissing = true)
+@ConditionalOnExpression(FlowControlStrategyExpressions.IS_CLOSED_LOOP_STRATEGY)
+public class ClosedLoopScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClosedLoopScheduler.class);
+
+    // a user doesn't retry a failed start right away, to not spin while e.g. the process isn't deployed
+    private static final long ERROR_BACKOFF_MILLIS = 1000;
+
+    private final BenchmarkConfiguration config;
+    private final StartPiExecutor executor;
+    private final StatisticsCollector stats;
+    private final ProcessInstanceCompletionTracker completionTracker;
+    private final BenchmarkStartPiExceptionHandlingStrategy exceptionHandlingStrategy;
+    private final boolean awaitResult;
+
+    private final List<Thread> users = new CopyOnWriteArrayList<>();
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    // latencies of the current step, in milliseconds
+    private final Recorder stepLatency = new Recorder(TimeUnit.HOURS.toMillis(1), 3);
+    private final Timer latency;
+    private final Counter errors;
+    private volatile double throughputPerUser;
+
+    private volatile Thread control;
+
+    public ClosedLoopScheduler(BenchmarkConfiguration config, StartPiExecutor executor, StatisticsCollector stats,
+                               ProcessInstanceCompletionTracker completionTracker,
+                               BenchmarkStartPiExceptionHandlingStrategy exceptionHandlingStrategy,
+                               MeterRegistry meterRegistry) {
+        this.config = config;
+        this.executor = executor;
+        this.stats = stats;
+        this.completionTracker = completionTracker;
+        this.exceptionHandlingStrategy = exceptionHandlingStrategy;
+        this.awaitResult = switch (config.getVirtualUserCompletion()) {
+            case "result" -> true;
+            case "job" -> false;
+            default -> throw new IllegalArgumentException("benchmark.virtualUserCompletion must be 'result' or 'job', but is '"
+                    + config.getVirtualUserCompletion() + "'");
+        };
+        if (config.isEnablePartitionPinning()) {
+            throw new IllegalStateException("The closedLoop strategy can't be used with partition pinning, "
+                    + "as PIs started via message can't be awaited");
+        }
+        this.latency = Timer.builder("closed_loop_latency")
+                .description("Time from starting a PI until a virtual user saw it finished")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.errors = meterRegistry.counter("closed_loop_errors");
+        meterRegistry.gauge("closed_loop_users", activeUsers);
+        meterRegistry.gauge("closed_loop_throughput_per_user", this, ClosedLoopScheduler::getThroughputPerUser);
+    }
+
+    /**
+     * Starts the virtual users. Called by {@code BenchmarkApplication} once the process is deployed and the workers
+     * are started, as the first step would only see failed or never completing instances otherwise.
+     */
+    public void start() {
+        if (!awaitResult) {
+            completionTracker.enable(config.getStartWithResultTimeoutMillis());
+        }
+        LOG.info("Starting closed-loop load: {} virtual users (initial {}, +{} every {} ms), think time {} ms, awaiting {}",
+                config.getVirtualUsers(), initialUsers(), config.getVirtualUsersIncrement(),
+                config.getVirtualUsersStepDurationMillis(), config.getVirtualUserThinkTimeMillis(),
+                awaitResult ? "the PI result" : "the completion job");
+        control = Thread.ofVirtual().name("closed-loop-control").start(this::rampUp);
+    }
+
+    private int initialUsers() {
+        int initial = config.getInitialVirtualUsers();
+        return initial > 0 ? Math.min(initial, config.getVirtualUsers()) : config.getVirtualUsers();
+    }
+
+    private void rampUp() {
+        int target = initialUsers();
+        stepLatency.reset();
+        while (!Thread.currentThread().isInterrupted()) {
+            addUsers(target);
+            try {
+                Thread.sleep(config.getVirtualUsersStepDurationMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            target = endStep(target);
+        }
+    }
+
+    void addUsers(int target) {
+        while (users.size() < target) {
+            int userId = users.size() + 1;
+            users.add(Thread.ofVirtual().name("virtual-user-" + userId).start(this::userLoop));
+        }
+    }
+
+    /**
+     * Reports the step that just ran with the given number of users.
+     *
+     * @return the number of users of the next step
+     */
+    int endStep(int userCount) {
+        reportStep(userCount);
+        if (config.getVirtualUsersIncrement() > 0) {
+            return Math.min(config.getVirtualUsers(), userCount + config.getVirtualUsersIncrement());
+        }
+        return userCount;
+    }
+
+    private void reportStep(int userCount) {
+        Histogram histogram = stepLatency.getIntervalHistogram();
+        double seconds = config.getVirtualUsersStepDurationMillis() / 1000.0;
+        double throughput = histogram.getTotalCount() / seconds;
+        throughputPerUser = throughput / userCount;
+        LOG.info("CLOSED LOOP: {} users, {} PI/s ({} PI/s per user). Latency p50: {} ms, p99: {} ms, max: {} ms",
+                userCount, String.format("%.1f", throughput), String.format("%.3f", throughputPerUser),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getMaxValue());
+    }
+
+    private void userLoop() {
+        activeUsers.incrementAndGet();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long thinkTime = config.getVirtualUserThinkTimeMillis();
+                if (!runIteration()) {
+                    thinkTime = Math.max(thinkTime, ERROR_BACKOFF_MILLIS);
+                }
+                if (thinkTime > 0) {
+                    Thread.sleep(thinkTime);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return whether the PI was started and finished in time
+     */
+    private boolean runIteration() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getStartWithResultTimeoutMillis());
+        CompletableFuture<Long> started = null;
+        CompletableFuture<Void> completed = null;
+        Long processInstanceKey = null;
+        try {
+            stats.incStartedProcessInstances();
+            started = executor.startInstanceForVirtualUser(awaitResult);
+            processInstanceKey = started.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            if (!awaitResult) {
+                completed = completionTracker.await(processInstanceKey);
+                completed.get(timeoutNanos - (System.nanoTime() - startNanos), TimeUnit.NANOSECONDS);
+            }
+            long latencyNanos = System.nanoTime() - startNanos;
+            latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+            stepLatency.recordValue(Math.min(TimeUnit.HOURS.toMillis(1), TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+            if (awaitResult) {
+                stats.recordProcessInstanceResult(latencyNanos);
+            }
+            return true;
+        } catch (ExecutionException e) {
+            errors.increment();
+            // counted and logged the same way as the failed starts of the other strategies
+            exceptionHandlingStrategy.countException(e.getCause());
+            return false;
+        } catch (TimeoutException e) {
+            errors.increment();
+            LOG.debug("Virtual user gave up waiting for PI {} to finish", processInstanceKey);
+            return false;
+        } finally {
+            // completes what the user gave up on (a no-op for completed futures), so nothing waits for it any more
+            if (started != null) {
+                started.cancel(false);
+            }
+            if (completed != null) {
+                completed.cancel(false);
+            }
+            if (processInstanceKey != null && !awaitResult) {
+                completionTracker.forget(processInstanceKey);
+            }
+        }
+    }
+
+    public double getThroughputPerUser() {
+        return throughputPerUser;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (control != null) {
+            control.interrupt();
+        }
+        users.forEach(Thread::interrupt);
+    }
+}
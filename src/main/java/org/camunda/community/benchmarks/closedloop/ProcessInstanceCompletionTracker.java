@@ -0,0 +1,70 @@
+package org.camunda.community.benchmarks.closedloop;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets closed-loop virtual users wait for the completion job (the job type ending with {@code -completed})
+ * of the PI they started, with {@code benchmark.virtualUserCompletion=job}.
+ * <p>
+ * The completion may be seen before the user even got the key of its PI back, so whichever side comes
+ * first creates the entry. Entries nobody waits for (PIs started by another starter, or by a user that
+ * already gave up) are evicted once they are older than {@code benchmark.startWithResultTimeoutMillis}.
+ * Does nothing until {@link #enable(long)} was called.
+ */
+@Component
+public class ProcessInstanceCompletionTracker {
+
+    private final ConcurrentMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private long maxAgeNanos;
+
+    public void enable(long maxAgeMillis) {
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+        this.enabled = true;
+    }
+
+    public void onCompleted(long processInstanceKey) {
+        if (enabled) {
+            pendingFor(processInstanceKey).future().complete(null);
+        }
+    }
+
+    /**
+     * @return completes once the PI finished, call {@link #forget(long)} afterwards (or when giving up)
+     */
+    public CompletableFuture<Void> await(long processInstanceKey) {
+        return pendingFor(processInstanceKey).future();
+    }
+
+    public void forget(long processInstanceKey) {
+        pending.remove(processInstanceKey);
+    }
+
+    private Pending pendingFor(long processInstanceKey) {
+        return pending.computeIfAbsent(processInstanceKey, key -> new Pending(new CompletableFuture<>(), System.nanoTime()));
+    }
+
+    @Scheduled(fixedRate = 10 * 1000)
+    public void evictExpired() {
+        evictExpired(System.nanoTime());
+    }
+
+    void evictExpired(long nowNanos) {
+        if (enabled) {
+            pending.values().removeIf(p -> nowNanos - p.createdNanos() > maxAgeNanos);
+        }
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    private record Pending(CompletableFuture<Void> future, long createdNanos) {
+    }
+}
@@ -34,6 +34,10 @@ public abstract class BenchmarkScheduler extends RateCalculator {
 
     long currentTime = System.currentTimeMillis();
     long passedTime = currentTime - startTimeInMillis;
+    // the rate schedule spreads the goal evenly over the second, so the n-th instance of the second is
+    // intended at n/goal seconds - a tick (or batch) that runs late doesn't shift that
+    long intendedSecondStart = startTimeInMillis;
+    long instancesStartedBefore = piStarted;
 
     counter++;
     long processInstancesToStart = 0;
@@ -65,10 +69,17 @@ public abstract class BenchmarkScheduler extends RateCalculator {
     // start after all calculations to avoid that the next scheduler run intervenes.
     // (the above calculations should always be faster than 10ms, starting a big batch might not)
     // TODO: Think about if we should detect if starting takes longer than the 10ms interval
-    startInstances( processInstancesToStart );
+    if (processInstancesToStart > 0) {
+      double intendedIntervalMillis = 1000.0 / Math.max(1, instanceStartingGoal);
+      startInstances( processInstancesToStart, intendedSecondStart + Math.round(instancesStartedBefore * intendedIntervalMillis), intendedIntervalMillis );
+    }
   }
 
+  /**
+   * @param firstIntendedStartMillis when the rate schedule intended the first instance of the batch to start
+   * @param intendedIntervalMillis   intended time between two instances
+   */
   @Async
-  protected abstract void startInstances(long batchSize);
+  protected abstract void startInstances(long batchSize, long firstIntendedStartMillis, double intendedIntervalMillis);
 
 }
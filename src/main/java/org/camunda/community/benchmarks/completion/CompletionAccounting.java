@@ -0,0 +1,94 @@
+package org.camunda.community.benchmarks.completion;
+
+import io.camunda.client.metrics.MetricsRecorder;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.camunda.community.benchmarks.refactoring.CommandCompletionListener;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the job completions of one job type and publishes them in aggregate. Counting a single completion
+ * directly means a metric context with its own tag map per job, and a lookup of the counter in the meter
+ * registry; instead, completions are only added up here (sent, and the final outcome of their command) and
+ * published once per tick of the {@link CompletionScheduler}, with one metric context per tick and outcome.
+ * <p>
+ * The metric context handed to every complete command is built once, too.
+ */
+public class CompletionAccounting implements CommandCompletionListener {
+
+    private static final String METRIC_NAME = "job_completion";
+
+    private final Map<String, String> tags;
+    private final MetricsRecorder.CounterMetricsContext context;
+    private final MetricsRecorder metricsRecorder;
+    private final StatisticsCollector stats;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    // everything flushed so far
+    private volatile long sentTotal;
+    private volatile long succeededTotal;
+    private volatile long failedTotal;
+
+    public CompletionAccounting(String jobType, MetricsRecorder metricsRecorder, StatisticsCollector stats) {
+        this.tags = Map.of("type", jobType);
+        this.context = new MetricsRecorder.CounterMetricsContext(METRIC_NAME, tags, 1);
+        this.metricsRecorder = metricsRecorder;
+        this.stats = stats;
+    }
+
+    /**
+     * @return the context for the complete commands of this job type
+     */
+    public MetricsRecorder.CounterMetricsContext getContext() {
+        return context;
+    }
+
+    public void onSent() {
+        sent.increment();
+    }
+
+    @Override
+    public void onCompletion(long latencyNanos, Throwable error) {
+        if (error == null) {
+            succeeded.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Publishes everything counted since the last call. Must only be called by one thread.
+     */
+    void flush() {
+        long sentCount = sent.sumThenReset();
+        if (sentCount > 0) {
+            sentTotal += sentCount;
+            stats.incCompletedJobs(sentCount);
+        }
+        long succeededCount = succeeded.sumThenReset();
+        if (succeededCount > 0) {
+            succeededTotal += succeededCount;
+            metricsRecorder.increaseCompleted(new MetricsRecorder.CounterMetricsContext(METRIC_NAME, tags, Math.toIntExact(succeededCount)));
+        }
+        long failedCount = failed.sumThenReset();
+        if (failedCount > 0) {
+            failedTotal += failedCount;
+            metricsRecorder.increaseFailed(new MetricsRecorder.CounterMetricsContext(METRIC_NAME, tags, Math.toIntExact(failedCount)));
+        }
+    }
+
+    public long getSentTotal() {
+        return sentTotal;
+    }
+
+    public long getSucceededTotal() {
+        return succeededTotal;
+    }
+
+    public long getFailedTotal() {
+        return failedTotal;
+    }
+}
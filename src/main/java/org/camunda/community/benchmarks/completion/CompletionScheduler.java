@@ -0,0 +1,91 @@
+package org.camunda.community.benchmarks.completion;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the delayed job completions of the workers. With many job types, a high {@code maxJobsActive} and a
+ * completion delay, tens of thousands of completions are pending at any time; as one task each in the
+ * general {@code TaskScheduler}, every insert is a heap operation under a lock shared with everything else
+ * that is scheduled. Instead, they go into a {@link TimingWheel} driven by one dedicated thread that wakes up
+ * every {@code benchmark.completionTickMillis} and runs all completions due by then as a batch. After every tick,
+ * the registered {@link CompletionAccounting}s publish what they counted.
+ * <p>
+ * Exposes the gauges {@code job_completion_pending} (completions waiting for their delay to pass) and
+ * {@code job_completion_tick_lag} (how late the last tick was processed, in milliseconds). A growing tick lag
+ * means the completion thread can't keep up, and the measured job and PI durations get longer than configured.
+ */
+@Component
+public class CompletionScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompletionScheduler.class);
+
+    private final TimingWheel wheel;
+    private final long tickMillis;
+    private final List<CompletionAccounting> accountings = new CopyOnWriteArrayList<>();
+    private volatile Thread thread;
+
+    public CompletionScheduler(BenchmarkConfiguration config, MeterRegistry meterRegistry) {
+        this.tickMillis = config.getCompletionTickMillis();
+        this.wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(tickMillis), config.getCompletionWheelSize(),
+                System.nanoTime());
+        Gauge.builder("job_completion_pending", wheel, TimingWheel::getPending)
+                .description("Job completions waiting for their delay to pass")
+                .register(meterRegistry);
+        Gauge.builder("job_completion_tick_lag", wheel, w -> w.getLastTickLagNanos() / 1_000_000.0)
+                .description("How late the completion scheduler processed its last tick")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        LOG.info("Starting job completion timing wheel with {} ms ticks", tickMillis);
+        thread = Thread.ofPlatform().name("job-completion-wheel").daemon().start(this::run);
+    }
+
+    /**
+     * Runs the task once {@code delayMillis} passed (rounded up to the next tick).
+     */
+    public void schedule(Runnable task, long delayMillis) {
+        wheel.schedule(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+    }
+
+    /**
+     * Publishes the counts of the accounting after every tick.
+     */
+    public void register(CompletionAccounting accounting) {
+        accountings.add(accounting);
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            wheel.advance(System.nanoTime());
+            for (CompletionAccounting accounting : accountings) {
+                accounting.flush();
+            }
+            long sleepNanos = wheel.nextTickNanos() - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
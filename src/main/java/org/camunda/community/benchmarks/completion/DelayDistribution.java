@@ -0,0 +1,86 @@
+package org.camunda.community.benchmarks.completion;
+
+import org.camunda.community.benchmarks.config.JobDelaySettings;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The completion delay of the jobs of one type. Real service latencies are rarely constant but long-tailed,
+ * so besides a constant delay, it can be sampled from a uniform, exponential, log-normal or empirical
+ * distribution (see {@link JobDelaySettings}). Sampling doesn't allocate, as it runs for every job.
+ */
+@FunctionalInterface
+public interface DelayDistribution {
+
+    /**
+     * @return the delay of the next job, in milliseconds
+     */
+    long sampleMillis();
+
+    static DelayDistribution constant(long millis) {
+        return () -> millis;
+    }
+
+    /**
+     * @param defaultMillis {@code benchmark.taskCompletionDelay}, used if no settings (or no constant) are given
+     */
+    static DelayDistribution of(JobDelaySettings settings, long defaultMillis) {
+        if (settings == null) {
+            return constant(defaultMillis);
+        }
+        DelayDistribution distribution = switch (settings.getDistribution()) {
+            case "constant" -> constant(settings.getMillis() != null ? settings.getMillis() : defaultMillis);
+            case "uniform" -> uniform(settings.getMinMillis(), settings.getMaxMillis());
+            case "exponential" -> exponential(settings.getMeanMillis());
+            case "logNormal" -> logNormal(settings.getMedianMillis(), settings.getP99Millis());
+            case "empirical" -> empirical(settings);
+            default -> throw new IllegalArgumentException("Unknown delay distribution '" + settings.getDistribution()
+                    + "', must be one of constant, uniform, exponential, logNormal, empirical");
+        };
+        long cap = settings.getMaxMillis();
+        if (cap > 0 && !"uniform".equals(settings.getDistribution())) {
+            return () -> Math.min(cap, distribution.sampleMillis());
+        }
+        return distribution;
+    }
+
+    static DelayDistribution uniform(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Uniform delay needs 0 <= minMillis <= maxMillis, but got ["
+                    + minMillis + ", " + maxMillis + "]");
+        }
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    static DelayDistribution exponential(long meanMillis) {
+        if (meanMillis <= 0) {
+            throw new IllegalArgumentException("Exponential delay needs a positive meanMillis");
+        }
+        return () -> Math.round(-meanMillis * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    static DelayDistribution logNormal(long medianMillis, long p99Millis) {
+        if (medianMillis <= 0 || p99Millis < medianMillis) {
+            throw new IllegalArgumentException("Log-normal delay needs 0 < medianMillis <= p99Millis");
+        }
+        // the 99th percentile is 2.326 standard deviations above the median (inverse normal CDF at 0.99)
+        double mu = Math.log(medianMillis);
+        double sigma = Math.log((double) p99Millis / medianMillis) / 2.3263478740408408;
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    private static DelayDistribution empirical(JobDelaySettings settings) {
+        if (settings.getPercentiles() == null) {
+            throw new IllegalArgumentException("Empirical delay needs a percentiles file");
+        }
+        try (InputStream in = settings.getPercentiles().getInputStream()) {
+            return EmpiricalDelayDistribution.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read delay percentiles from " + settings.getPercentiles(), e);
+        }
+    }
+}
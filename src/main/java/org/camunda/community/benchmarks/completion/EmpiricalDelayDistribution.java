@@ -0,0 +1,83 @@
+package org.camunda.community.benchmarks.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delay distribution given by some of its percentiles, e.g. measured in production. Samples by inverting
+ * the CDF: a uniform random quantile is looked up between the two surrounding percentiles and interpolated
+ * linearly. Quantiles below the first (above the last) given percentile get its value.
+ */
+class EmpiricalDelayDistribution implements DelayDistribution {
+
+    // ascending quantiles (0..1) and their delays
+    private final double[] quantiles;
+    private final long[] millis;
+
+    EmpiricalDelayDistribution(double[] quantiles, long[] millis) {
+        if (quantiles.length == 0 || quantiles.length != millis.length) {
+            throw new IllegalArgumentException("Empirical delay needs at least one percentile");
+        }
+        for (int i = 1; i < quantiles.length; i++) {
+            if (quantiles[i] <= quantiles[i - 1] || millis[i] < millis[i - 1]) {
+                throw new IllegalArgumentException("Percentiles and their delays must be ascending, but got "
+                        + Arrays.toString(quantiles) + " -> " + Arrays.toString(millis));
+            }
+        }
+        this.quantiles = quantiles;
+        this.millis = millis;
+    }
+
+    /**
+     * @param csv lines of "percentile,millis" (e.g. "99.9,2000"), empty lines and lines starting with # are ignored
+     */
+    static EmpiricalDelayDistribution parse(String csv) {
+        List<double[]> points = new ArrayList<>();
+        for (String line : csv.split("\\R")) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("[,;]");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected 'percentile,millis' but got '" + line + "'");
+            }
+            double percentile = Double.parseDouble(parts[0].strip());
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100, but is " + percentile);
+            }
+            points.add(new double[]{percentile / 100, Double.parseDouble(parts[1].strip())});
+        }
+        double[] quantiles = new double[points.size()];
+        long[] millis = new long[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            quantiles[i] = points.get(i)[0];
+            millis[i] = Math.round(points.get(i)[1]);
+        }
+        return new EmpiricalDelayDistribution(quantiles, millis);
+    }
+
+    @Override
+    public long sampleMillis() {
+        return valueAt(ThreadLocalRandom.current().nextDouble());
+    }
+
+    long valueAt(double quantile) {
+        int i = Arrays.binarySearch(quantiles, quantile);
+        if (i >= 0) {
+            return millis[i];
+        }
+        int upper = -i - 1;
+        if (upper == 0) {
+            return millis[0];
+        }
+        if (upper == quantiles.length) {
+            return millis[quantiles.length - 1];
+        }
+        int lower = upper - 1;
+        double fraction = (quantile - quantiles[lower]) / (quantiles[upper] - quantiles[lower]);
+        return Math.round(millis[lower] + fraction * (millis[upper] - millis[lower]));
+    }
+}
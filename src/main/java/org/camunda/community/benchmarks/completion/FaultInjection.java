@@ -0,0 +1,114 @@
+package org.camunda.community.benchmarks.completion;
+
+import io.camunda.client.exception.BpmnError;
+import org.camunda.community.benchmarks.config.JobTypeSettings;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides per job whether the worker completes it or injects a fault instead, at the rates configured for its
+ * job type: failing it ({@code failureRate}, with {@code failureRetries} remaining retries - 0 creates an
+ * incident - and an optional {@code failureRetryBackoff}), throwing a BPMN error with one of the
+ * {@code errorCodes} ({@code errorRate}), or not reacting at all, so it times out and is activated again
+ * ({@code timeoutRate}).
+ */
+public class FaultInjection {
+
+    public enum Outcome {
+        COMPLETE, FAIL, THROW_ERROR, TIME_OUT
+    }
+
+    static final List<String> DEFAULT_ERROR_CODES = List.of("benchmark-error");
+
+    // cumulative thresholds for one uniform random draw
+    private final double failureRate;
+    private final double errorRate;
+    private final double timeoutRate;
+    private final double failBelow;
+    private final double errorBelow;
+    private final double timeoutBelow;
+    private final Integer failureRetries;
+    private final Duration retryBackoff;
+    private final BpmnError[] errors;
+
+    public FaultInjection(JobTypeSettings settings) {
+        double failureRate = rate(settings.getFailureRate());
+        double errorRate = rate(settings.getErrorRate());
+        double timeoutRate = rate(settings.getTimeoutRate());
+        if (failureRate < 0 || errorRate < 0 || timeoutRate < 0 || failureRate + errorRate + timeoutRate > 1) {
+            throw new IllegalArgumentException("failureRate, errorRate and timeoutRate must be >= 0 and add up to at most 1, "
+                    + "but are " + failureRate + ", " + errorRate + " and " + timeoutRate);
+        }
+        if (settings.getFailureRetries() != null && settings.getFailureRetries() < 0) {
+            throw new IllegalArgumentException("failureRetries must be >= 0, but is " + settings.getFailureRetries());
+        }
+        this.failureRate = failureRate;
+        this.errorRate = errorRate;
+        this.timeoutRate = timeoutRate;
+        this.failBelow = failureRate;
+        this.errorBelow = failBelow + errorRate;
+        this.timeoutBelow = errorBelow + timeoutRate;
+        this.failureRetries = settings.getFailureRetries();
+        this.retryBackoff = settings.getFailureRetryBackoff();
+        List<String> errorCodes = settings.getErrorCodes() != null ? settings.getErrorCodes() : DEFAULT_ERROR_CODES;
+        if (errorRate > 0 && errorCodes.isEmpty()) {
+            throw new IllegalArgumentException("errorRate needs at least one error code");
+        }
+        // created once, they are thrown for every injected error
+        this.errors = errorCodes.stream()
+                .map(code -> new BpmnError(code, "Error injected by the benchmark"))
+                .toArray(BpmnError[]::new);
+    }
+
+    // not set means none
+    private static double rate(Double rate) {
+        return rate != null ? rate : 0;
+    }
+
+    public boolean isEnabled() {
+        return timeoutBelow > 0;
+    }
+
+    public Outcome next() {
+        if (timeoutBelow <= 0) {
+            return Outcome.COMPLETE;
+        }
+        double draw = ThreadLocalRandom.current().nextDouble();
+        if (draw < failBelow) {
+            return Outcome.FAIL;
+        } else if (draw < errorBelow) {
+            return Outcome.THROW_ERROR;
+        } else if (draw < timeoutBelow) {
+            return Outcome.TIME_OUT;
+        }
+        return Outcome.COMPLETE;
+    }
+
+    public BpmnError nextError() {
+        return errors[ThreadLocalRandom.current().nextInt(errors.length)];
+    }
+
+    /**
+     * @return the retries to fail a job with, that has {@code currentRetries} left
+     */
+    public int retriesAfterFailure(int currentRetries) {
+        return failureRetries != null ? failureRetries : Math.max(0, currentRetries - 1);
+    }
+
+    /**
+     * @return {@code null} to retry right away
+     */
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    @Override
+    public String toString() {
+        return (failureRate * 100) + "% failed (retries " + (failureRetries != null ? failureRetries : "decremented") + "), "
+                + (errorRate * 100) + "% BPMN errors " + Arrays.stream(errors).map(BpmnError::getErrorCode).toList() + ", "
+                + (timeoutRate * 100) + "% timed out";
+    }
+}
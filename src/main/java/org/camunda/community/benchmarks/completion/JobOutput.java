@@ -0,0 +1,95 @@
+package org.camunda.community.benchmarks.completion;
+
+import org.camunda.community.benchmarks.config.JobOutputSettings;
+
+import java.util.Random;
+
+/**
+ * The variables a job type completes its jobs with, to load the engine with variable merging and state growth
+ * like real workers do. The JSON document is encoded once: in {@code overwrite} mode, every completion sends
+ * the same document, so the variables of the PI are overwritten. In {@code append} mode, the job key is added
+ * to every variable name, so every job adds new variables and the state grows; only the names are spliced in,
+ * the values are still encoded once.
+ * <p>
+ * The values are random alphanumeric strings, so they can't be compressed away anywhere on their way.
+ */
+public class JobOutput {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final boolean append;
+    // the whole document, as sent in overwrite mode
+    private final String document;
+    // append mode: the start of every variable ("{\"prefix0", ",\"prefix1", ...), followed by _jobKey and the value
+    private final String[] names;
+    private final String valueSuffix;
+    private final int appendLength;
+
+    JobOutput(String namePrefix, int variables, int valueBytes, boolean append) {
+        if (variables <= 0 || valueBytes < 0) {
+            throw new IllegalArgumentException("Job output needs at least one variable and a size >= 0");
+        }
+        this.append = append;
+        this.valueSuffix = "\":\"" + randomValue(valueBytes, namePrefix.hashCode()) + "\"";
+        this.names = new String[variables];
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < variables; i++) {
+            names[i] = (i == 0 ? "{\"" : ",\"") + namePrefix + i;
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(namePrefix).append(i).append(valueSuffix);
+        }
+        this.document = json.append('}').toString();
+        // the job key has up to 19 digits, plus the separating _
+        this.appendLength = document.length() + variables * 20;
+    }
+
+    /**
+     * @return {@code null} if the job type has no output configured
+     */
+    public static JobOutput of(String jobType, JobOutputSettings settings) {
+        if (settings == null) {
+            return null;
+        }
+        boolean append = switch (settings.getMode()) {
+            case "overwrite" -> false;
+            case "append" -> true;
+            default -> throw new IllegalArgumentException("Job output mode must be 'overwrite' or 'append', but is '"
+                    + settings.getMode() + "'");
+        };
+        String prefix = settings.getNamePrefix() != null ? settings.getNamePrefix()
+                : jobType.replaceAll("[^A-Za-z0-9_]", "_") + "_";
+        return new JobOutput(prefix, settings.getVariables(), Math.toIntExact(settings.getSize().toBytes()), append);
+    }
+
+    /**
+     * @return the variables to complete the job with, as JSON document
+     */
+    public String variablesFor(long jobKey) {
+        if (!append) {
+            return document;
+        }
+        StringBuilder json = new StringBuilder(appendLength);
+        for (String name : names) {
+            json.append(name).append('_').append(jobKey).append(valueSuffix);
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * @return the size of every document, in characters (not counting the job keys in append mode)
+     */
+    public int getDocumentLength() {
+        return document.length();
+    }
+
+    private static String randomValue(int length, long seed) {
+        Random random = new Random(seed);
+        char[] value = new char[length];
+        for (int i = 0; i < length; i++) {
+            value[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(value);
+    }
+}
@@ -0,0 +1,153 @@
+package org.camunda.community.benchmarks.completion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed timing wheel (as described by Varghese and Lauck): a ring of buckets, one per tick. A task due in
+ * {@code n} ticks is put into the bucket {@code n} slots ahead of the current one, together with the number
+ * of full rotations it has to wait if {@code n} is larger than the wheel. Inserting is O(1) regardless of
+ * how many tasks are pending, unlike the heap of a {@code ScheduledThreadPoolExecutor}.
+ * <p>
+ * Any thread may {@link #schedule(Runnable, long)}, the tasks are only handed over via a lock-free queue.
+ * Everything else, i.e. sorting them into buckets and running the due ones, happens in {@link #advance(long)},
+ * which must only be called by a single thread. All tasks due in a tick are run as one batch. They are run
+ * no earlier than their deadline, but up to one tick later.
+ */
+class TimingWheel {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final int mask;
+    private final ArrayDeque<Timeout>[] buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final List<Runnable> batch = new ArrayList<>();
+
+    // the next tick to process, only accessed by the thread calling advance()
+    private long tick;
+    private volatile long lastTickLagNanos;
+
+    /**
+     * @param tickNanos  granularity of the wheel
+     * @param wheelSize  number of buckets, rounded up to a power of two
+     * @param startNanos {@link System#nanoTime()} of tick 0
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickNanos, int wheelSize, long startNanos) {
+        if (tickNanos <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        this.mask = size - 1;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * @param deadlineNanos {@link System#nanoTime()} at which the task should run
+     */
+    void schedule(Runnable task, long deadlineNanos) {
+        pending.incrementAndGet();
+        incoming.add(new Timeout(task, deadlineNanos - startNanos));
+    }
+
+    /**
+     * Runs all tasks due up to {@code nowNanos}.
+     *
+     * @return the number of tasks run
+     */
+    int advance(long nowNanos) {
+        long elapsed = nowNanos - startNanos;
+        if (elapsed < tick * tickNanos) {
+            return 0;
+        }
+        lastTickLagNanos = elapsed - tick * tickNanos;
+        int run = 0;
+        while (tick * tickNanos <= elapsed) {
+            transferIncoming();
+            run += expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+        return run;
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            // rounded up, so a task never runs before its deadline; anything overdue goes into the current tick
+            long expiryTick = Math.max(tick, Math.ceilDiv(timeout.deadline, tickNanos));
+            timeout.remainingRounds = (expiryTick - tick) / buckets.length;
+            buckets[(int) (expiryTick & mask)].add(timeout);
+        }
+    }
+
+    private int expire(ArrayDeque<Timeout> bucket) {
+        for (int i = bucket.size(); i > 0; i--) {
+            Timeout timeout = bucket.poll();
+            if (timeout.remainingRounds <= 0) {
+                batch.add(timeout.task);
+            } else {
+                timeout.remainingRounds--;
+                bucket.add(timeout);
+            }
+        }
+        int size = batch.size();
+        for (Runnable task : batch) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Scheduled task failed", e);
+            }
+        }
+        batch.clear();
+        pending.addAndGet(-size);
+        return size;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} at which the next tick is due
+     */
+    long nextTickNanos() {
+        return startNanos + tick * tickNanos;
+    }
+
+    long getPending() {
+        return pending.get();
+    }
+
+    /**
+     * @return how late the last {@link #advance(long)} processed its first due tick
+     */
+    long getLastTickLagNanos() {
+        return lastTickLagNanos;
+    }
+
+    private static class Timeout {
+        private final Runnable task;
+        // relative to startNanos
+        private final long deadline;
+        private long remainingRounds;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.camunda.community.benchmarks.completion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Job handler execution for {@code benchmark.jobHandlerExecution=virtualThreads}: every job gets its own
+ * virtual thread, which sleeps for the completion delay and then completes the job, blocking until the
+ * response arrived - like a real worker blocking on I/O. As the client's execution threads only start the
+ * virtual thread, the number of jobs worked on concurrently isn't limited by
+ * {@code camunda.client.zeebe.execution-threads}, only by {@code max-jobs-active}.
+ * <p>
+ * The gauge {@code job_handler_virtual_threads} shows the number of jobs currently worked on.
+ */
+@Component
+public class VirtualThreadJobExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadJobExecutor.class);
+
+    private final boolean enabled;
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("job-handler-", 0).factory();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public VirtualThreadJobExecutor(BenchmarkConfiguration config, MeterRegistry meterRegistry) {
+        this.enabled = switch (config.getJobHandlerExecution()) {
+            case "virtualThreads" -> true;
+            case "scheduler" -> false;
+            default -> throw new IllegalArgumentException("benchmark.jobHandlerExecution must be 'scheduler' or "
+                    + "'virtualThreads', but is '" + config.getJobHandlerExecution() + "'");
+        };
+        if (enabled) {
+            meterRegistry.gauge("job_handler_virtual_threads", active);
+            LOG.info("Job handlers run on virtual threads");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs the handler on a new virtual thread once {@code delayMillis} passed.
+     */
+    public void execute(Runnable handler, long delayMillis) {
+        threadFactory.newThread(() -> {
+            active.incrementAndGet();
+            try {
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                handler.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOG.warn("Job handler failed", e);
+            } finally {
+                active.decrementAndGet();
+            }
+        }).start();
+    }
+
+    int getActive() {
+        return active.get();
+    }
+}
@@ -5,6 +5,12 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * All getters/setters on this class are generated by Lombok's {@code @Getter}/{@code @Setter}
@@ -30,10 +36,55 @@ public class BenchmarkConfiguration {
     private int multipleJobTypes = 0;
     private boolean startWorkers = true;
     private long taskCompletionDelay = 200;
+    // Worker settings per job type, e.g. a delay distribution (see JobTypeSettings)
+    private Map<String, JobTypeSettings> jobTypeSettings = new LinkedHashMap<>();
+    // Workers add their job type and completion time to the variables, the next job's worker records the latency in between
+    private boolean measureHopLatency = false;
+    // Tunes maxJobsActive of every worker at runtime within the bounds (see AdaptiveJobActivation)
+    private boolean adaptiveJobActivation = false;
+    private int adaptiveMinJobsActive = 32;
+    private int adaptiveMaxJobsActive = 10000;
+    private long adaptiveJobActivationIntervalMillis = 30 * 1000;
+    // Above this delay from activation until the handler runs, or this ratio of failed completions, workers take fewer jobs
+    private long targetJobQueueDelayMillis = 100;
+    private double maxJobCompletionErrorRatio = 0.01;
+    // Writes exact PI cycle time, job and command latencies to this HdrHistogram interval log (see HdrIntervalLog)
+    private String hdrLogFile;
+    // Per-second statistics kept for the benchmark report (6 hours by default), see BenchmarkReportGenerator
+    private int statsSnapshotSeconds = 6 * 60 * 60;
+    // Writes the benchmark report there when the starter shuts down
+    private String reportDirectory;
+    // Writes a row of statistics per second to this file (see TimeSeriesWriter), as csv or jsonl
+    private String timeSeriesFile;
+    private String timeSeriesFormat = "csv";
+    private DataSize timeSeriesMaxFileSize = DataSize.ofMegabytes(100);
+    private int timeSeriesMaxFiles = 5;
+    private long timeSeriesFlushIntervalMillis = 10 * 1000;
+    // granularity and number of buckets of the timing wheel running the delayed job completions
+    private long completionTickMillis = 5;
+    private int completionWheelSize = 1024;
+    // 'scheduler': delayed completions on the timing wheel, 'virtualThreads': every job blocks a virtual thread
+    private String jobHandlerExecution = "scheduler";
+    // Monitors carrier threads and pinning (always on with jobHandlerExecution=virtualThreads)
+    private boolean virtualThreadMetrics = false;
+    private long virtualThreadPinnedThresholdMillis = 20;
     private String bpmnProcessId = "benchmark";
     private Resource payloadPath; // = new UrlResource("classpath:bpmn/typical_payload.json");
+    // Serialize the payload once at startup and only splice the per-instance fields into it
+    private boolean preEncodedPayload = false;
+    // Generate a new payload per PI from the placeholders in the payload file (see PayloadGenerator)
+    private boolean generatePayloadPerInstance = false;
+    private int payloadBufferSize = 10000;
+    private int payloadProducerThreads = 1;
+    // Payload size sweep (see PayloadSizeSweep), disabled unless sizes are configured
+    private List<DataSize> payloadSweepSizes = new ArrayList<>();
+    private long payloadSweepStepDurationMillis = 5 * 60 * 1000;
+    private long payloadSweepWarmupMillis = 60 * 1000;
+    private String payloadSweepResultsFile = "payload-sweep-results.csv";
     private Resource[] bpmnResource;
     private boolean autoDeployProcess = true;
+    // Weighted mix of processes to start (by BPMN process ID) instead of only bpmnProcessId, see WorkloadMix
+    private Map<String, WorkloadMixEntry> workloadMix = new LinkedHashMap<>();
 
     private String jobTypesToReplace;
     private String bpmnProcessIdToReplace;
@@ -52,6 +103,29 @@ public class BenchmarkConfiguration {
     private double minJobCompletionRatio = 0.8;
 
     private long fixedBackOffDelay = 0;
+
+    // Cap on outstanding PI-start commands, schedulers block while it is reached (0 = unlimited)
+    private int maxInFlightStarts = 0;
+    // Used by the "concurrencyLimit" strategy: bounds of the latency-driven in-flight starts limit
+    private int initialConcurrencyLimit = 20;
+    private int minConcurrencyLimit = 1;
+    private int maxConcurrencyLimit = 10000;
+
+    // Fraction of PI starts (0..1) awaiting the process result, to measure their end-to-end latency
+    private double startWithResultRatio = 0;
+    // Cap on starts awaiting their result at the same time, beyond it instances are started normally
+    private int maxInFlightStartsWithResult = 100;
+    private long startWithResultTimeoutMillis = 5 * 60 * 1000;
+
+    // Used by the "closedLoop" strategy: virtual users each starting a PI, awaiting its end and thinking
+    private int virtualUsers = 10;
+    // Ramp: start with initialVirtualUsers (0 = all virtualUsers right away), add the increment every step
+    private int initialVirtualUsers = 0;
+    private int virtualUsersIncrement = 1;
+    private long virtualUsersStepDurationMillis = 60 * 1000;
+    private long virtualUserThinkTimeMillis = 0;
+    // How a virtual user learns its PI finished: "result" (create with result) or "job" (the completion job)
+    private String virtualUserCompletion = "result";
     
     private Resource messageScenario;
     private long messagesTtl;
@@ -13,7 +13,8 @@ import org.springframework.context.annotation.Configuration;
 import java.time.Duration;
 
 /**
- * Configuration for Bucket4j-based flow control strategies ({@code backoff} and {@code autoTune}).
+ * Configuration for Bucket4j-based flow control strategies ({@code backoff}, {@code autoTune},
+ * {@code autoTuneJobRatio} and {@code concurrencyLimit}).
  * <p>
  * Creates the token bucket and gRPC interceptor that provide rate limiting and
  * backpressure feedback. The bucket capacity and refill rate are derived from
@@ -2,8 +2,9 @@ package org.camunda.community.benchmarks.config;
 
 /**
  * Shared SpEL condition strings used to activate either the classic schedulers
- * ({@code StartPiScheduler}, {@code StartDecisionScheduler}) or the Bucket4j-based
- * flow control beans, depending on {@code benchmark.startRateAdjustmentStrategy}.
+ * ({@code StartPiScheduler}, {@code StartDecisionScheduler}), the Bucket4j-based
+ * flow control beans or the closed-loop virtual users, depending on
+ * {@code benchmark.startRateAdjustmentStrategy}.
  * <p>
  * Kept in one place so the two conditions can't drift out of sync as strategies are added.
  */
@@ -12,12 +13,22 @@ public final class FlowControlStrategyExpressions {
     public static final String IS_FLOW_CONTROL_STRATEGY =
         "'${benchmark.startRateAdjustmentStrategy:backpressure}' == 'backoff' or "
       + "'${benchmark.startRateAdjustmentStrategy:backpressure}' == 'autoTune' or "
-      + "'${benchmark.startRateAdjustmentStrategy:backpressure}' == 'autoTuneJobRatio'";
+      + "'${benchmark.startRateAdjustmentStrategy:backpressure}' == 'autoTuneJobRatio' or "
+      + "'${benchmark.startRateAdjustmentStrategy:backpressure}' == 'concurrencyLimit'";
 
     public static final String IS_NOT_FLOW_CONTROL_STRATEGY =
         "'${benchmark.startRateAdjustmentStrategy:backpressure}' != 'backoff' and "
       + "'${benchmark.startRateAdjustmentStrategy:backpressure}' != 'autoTune' and "
-      + "'${benchmark.startRateAdjustmentStrategy:backpressure}' != 'autoTuneJobRatio'";
+      + "'${benchmark.startRateAdjustmentStrategy:backpressure}' != 'autoTuneJobRatio' and "
+      + "'${benchmark.startRateAdjustmentStrategy:backpressure}' != 'concurrencyLimit'";
+
+    public static final String IS_CLOSED_LOOP_STRATEGY =
+        "'${benchmark.startRateAdjustmentStrategy:backpressure}' == 'closedLoop'";
+
+    // the classic (open-loop) PI scheduler, while the decision scheduler also runs in the closed-loop mode
+    public static final String IS_CLASSIC_PI_SCHEDULER_STRATEGY =
+        IS_NOT_FLOW_CONTROL_STRATEGY + " and "
+      + "'${benchmark.startRateAdjustmentStrategy:backpressure}' != 'closedLoop'";
 
     private FlowControlStrategyExpressions() {
     }
@@ -0,0 +1,29 @@
+package org.camunda.community.benchmarks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.core.io.Resource;
+
+/**
+ * Distribution the completion delay of a job type is sampled from, see {@code DelayDistribution}.
+ * All values are in milliseconds.
+ */
+@Getter
+@Setter
+public class JobDelaySettings {
+
+    // constant, uniform, exponential, logNormal or empirical
+    private String distribution = "constant";
+    // constant: the delay (defaults to benchmark.taskCompletionDelay)
+    private Long millis;
+    // uniform: the range; for all other distributions, maxMillis caps the long tail (0 = no cap)
+    private long minMillis = 0;
+    private long maxMillis = 0;
+    // exponential: the mean
+    private long meanMillis;
+    // logNormal: the median and the 99th percentile, which define how long the tail is
+    private long medianMillis;
+    private long p99Millis;
+    // empirical: CSV file with lines "percentile,millis" (e.g. "99,850"), interpolated in between
+    private Resource percentiles;
+}
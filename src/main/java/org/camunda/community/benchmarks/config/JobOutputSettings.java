@@ -0,0 +1,21 @@
+package org.camunda.community.benchmarks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Variables a job type completes its jobs with, see {@code JobOutput}.
+ */
+@Getter
+@Setter
+public class JobOutputSettings {
+
+    // Number of variables and the size of each (of its string value)
+    private int variables = 1;
+    private DataSize size = DataSize.ofKilobytes(1);
+    // "overwrite": the same variables on every completion, "append": new variables per job, so the state grows
+    private String mode = "overwrite";
+    // Prefix of the variable names, defaults to the job type
+    private String namePrefix;
+}
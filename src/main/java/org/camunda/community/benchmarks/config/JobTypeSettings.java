@@ -0,0 +1,67 @@
+package org.camunda.community.benchmarks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the worker of one job type in {@code benchmark.jobTypeSettings}, keyed by the job type
+ * (without the starter ID prefix added by partition pinning). The entry {@value #DEFAULT_KEY} applies to all
+ * job types, for everything their own entry doesn't set. Whatever isn't set at all falls back to the global
+ * settings ({@code benchmark.taskCompletionDelay}, {@code benchmark.fixedBackOffDelay}, the client's worker defaults).
+ */
+@Getter
+@Setter
+public class JobTypeSettings {
+
+    public static final String DEFAULT_KEY = "default";
+
+    // How long jobs of this type take, defaults to a constant benchmark.taskCompletionDelay
+    private JobDelaySettings delay;
+    // Variables to complete the jobs with, none by default
+    private JobOutputSettings output;
+    // Worker settings, default to camunda.client.zeebe.defaults.*
+    private Integer maxJobsActive;
+    private Duration timeout;
+    private Duration pollInterval;
+    private Boolean streamEnabled;
+    // Defaults to benchmark.fixedBackOffDelay
+    private Long fixedBackOffDelay;
+    // Fault injection (see FaultInjection), the rates are fractions of the jobs (0..1), none by default
+    // Failed instead of completed, with failureRetries left (defaults to decrementing them, 0 creates an incident)
+    private Double failureRate;
+    private Integer failureRetries;
+    private Duration failureRetryBackoff;
+    // BPMN error thrown instead of completing, with one of the error codes (defaults to benchmark-error)
+    private Double errorRate;
+    private List<String> errorCodes;
+    // Neither completed nor failed, so the job times out and is activated again
+    private Double timeoutRate;
+
+    /**
+     * @param defaults the {@value #DEFAULT_KEY} entry, may be {@code null}
+     * @return new settings with everything not set here taken from the defaults
+     */
+    public JobTypeSettings withDefaults(JobTypeSettings defaults) {
+        if (defaults == null || defaults == this) {
+            return this;
+        }
+        JobTypeSettings merged = new JobTypeSettings();
+        merged.delay = delay != null ? delay : defaults.delay;
+        merged.output = output != null ? output : defaults.output;
+        merged.maxJobsActive = maxJobsActive != null ? maxJobsActive : defaults.maxJobsActive;
+        merged.timeout = timeout != null ? timeout : defaults.timeout;
+        merged.pollInterval = pollInterval != null ? pollInterval : defaults.pollInterval;
+        merged.streamEnabled = streamEnabled != null ? streamEnabled : defaults.streamEnabled;
+        merged.fixedBackOffDelay = fixedBackOffDelay != null ? fixedBackOffDelay : defaults.fixedBackOffDelay;
+        merged.failureRate = failureRate != null ? failureRate : defaults.failureRate;
+        merged.failureRetries = failureRetries != null ? failureRetries : defaults.failureRetries;
+        merged.failureRetryBackoff = failureRetryBackoff != null ? failureRetryBackoff : defaults.failureRetryBackoff;
+        merged.errorRate = errorRate != null ? errorRate : defaults.errorRate;
+        merged.errorCodes = errorCodes != null ? errorCodes : defaults.errorCodes;
+        merged.timeoutRate = timeoutRate != null ? timeoutRate : defaults.timeoutRate;
+        return merged;
+    }
+}
@@ -0,0 +1,20 @@
+package org.camunda.community.benchmarks.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.core.io.Resource;
+
+/**
+ * One process of the {@code benchmark.workloadMix}, keyed by its BPMN process ID.
+ */
+@Getter
+@Setter
+public class WorkloadMixEntry {
+
+    // Relative share of the PI starts, e.g. 70 and 30 (doesn't need to add up to 1 or 100)
+    private double weight = 1;
+    // Payload for this process, defaults to benchmark.payloadPath
+    private Resource payloadPath;
+    // Additional resources to deploy for this process, on top of benchmark.bpmnResource
+    private Resource[] bpmnResource;
+}
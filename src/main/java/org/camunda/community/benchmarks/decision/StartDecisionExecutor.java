@@ -11,6 +11,7 @@ import jakarta.annotation.PostConstruct;
 import org.camunda.community.benchmarks.common.BenchmarkExecutor;
 import org.camunda.community.benchmarks.StatisticsCollector;
 import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.metrics.CommandLatencyRecorder;
 import org.camunda.community.benchmarks.refactoring.RefactoredCommandWrapper;
 import org.camunda.community.benchmarks.strategy.BenchmarkStartDecisionExceptionHandlingStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +42,9 @@ public class StartDecisionExecutor extends BenchmarkExecutor {
   @Autowired
   private CamundaClientConfiguration camundaClientConfiguration;
 
+  @Autowired
+  private CommandLatencyRecorder latencyRecorder;
+
   private Map<String, Object> benchmarkPayload;
 
   @PostConstruct
@@ -62,7 +66,8 @@ public class StartDecisionExecutor extends BenchmarkExecutor {
             "CreateDi" + config.getDmnDecisionId(),
             exceptionHandlingStrategy, micrometerMetricsRecorder,
             new MetricsRecorder.CounterMetricsContext("DI_action",
-                    Map.of("op", "start", "type", config.getDmnDecisionId()), 1));
+                    Map.of("op", "start", "type", config.getDmnDecisionId()), 1))
+            .withLatencyRecorder(latencyRecorder, "EvaluateDecision");
 
     command.executeAsyncWithMetrics(MetricsRecorder::increaseCompleted);
     stats.incEvaluatedDecisionInstances();
@@ -39,7 +39,7 @@ public class StartDecisionScheduler extends BenchmarkScheduler {
 
   @Async
   @Override
-  protected void startInstances(long batchSize) {
+  protected void startInstances(long batchSize, long firstIntendedStartMillis, double intendedIntervalMillis) {
     for (int i = 0; i < batchSize; i++) {
       executor.startInstance();
       stats.incStartedDecisionInstances();
@@ -11,10 +11,12 @@ import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
 import org.camunda.community.benchmarks.config.FlowControlStrategyExpressions;
 import org.camunda.community.benchmarks.utils.BpmnJobTypeParser;
 import org.camunda.community.benchmarks.utils.JobTypeCounter;
+import org.camunda.community.benchmarks.workload.WorkloadMix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -32,19 +34,23 @@ import java.util.Set;
  * throughput, and the {@link FlowControlInterceptor} provides backpressure feedback by
  * penalizing the bucket on RESOURCE_EXHAUSTED.
  * <p>
- * A single virtual thread is enough here: {@link StartPiExecutor#startInstance()} is fire-and-forget
+ * A single virtual thread is enough here: {@link StartPiExecutor#startInstance(long)} is fire-and-forget
  * (it dispatches the gRPC call asynchronously and returns immediately), so there is no blocking
  * work per iteration to parallelize — pacing is governed entirely by the token bucket, not by
  * how many threads are polling it. A fixed pool of worker threads would just be the classic
  * thread-pool pattern grafted onto virtual threads, which doesn't need it.
+ * (With a cap on in-flight starts, see {@link InFlightStartLimiter}, {@code startInstance()} blocks while
+ * the cap is reached - which is exactly the pacing wanted then, so one thread is still enough.)
  * <p>
- * Supports three strategies:
+ * Supports four strategies:
  * <ul>
  *   <li>{@code backoff} — fixed rate with penalty-based backoff, recovers to target</li>
  *   <li>{@code autoTune} — gRPC-backpressure-driven rate discovery, see {@link #adjustRate()}</li>
  *   <li>{@code autoTuneJobRatio} — job-completion-rate-driven rate discovery, see
  *       {@link #adjustRateByJobRatio()}; a better signal where applicable, but requires this same
  *       instance to also run job workers for the deployed process</li>
+ *   <li>{@code concurrencyLimit} — like {@code backoff} with {@code startPiPerSecond} as the ceiling, while the
+ *       actual pace is set by the latency-driven in-flight limit of the {@link InFlightStartLimiter}</li>
  * </ul>
  */
 @Component
@@ -98,8 +104,9 @@ public class Bucket4jPiScheduler {
 
     private static int countJobTypes(BenchmarkConfiguration config) {
         Set<String> jobTypes = new HashSet<>(JobTypeCounter.fromConfiguration(config));
-        if (config.isAutoDeployProcess() && config.getBpmnResource() != null && config.getBpmnResource().length > 0) {
-            jobTypes.addAll(BpmnJobTypeParser.extractJobTypes(config.getBpmnResource()));
+        Resource[] bpmnResources = WorkloadMix.bpmnResources(config);
+        if (config.isAutoDeployProcess() && bpmnResources.length > 0) {
+            jobTypes.addAll(BpmnJobTypeParser.extractJobTypes(bpmnResources));
         }
         return jobTypes.size();
     }
@@ -123,15 +130,26 @@ public class Bucket4jPiScheduler {
     }
 
     private void startLoop() {
+        double intendedStartMillis = System.currentTimeMillis();
         while (!Thread.currentThread().isInterrupted()) {
-            try {
-                bucket.asBlocking().consume(1);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            if (bucket.tryConsume(1)) {
+                // The token was already waiting, so this start is late if the loop was held up (e.g. by a blocked
+                // in-flight window): it was due one rate interval after the previous one, not when we got here
+                intendedStartMillis = Math.min(intendedStartMillis + 1000.0 / Math.max(1, rate.get()),
+                        System.currentTimeMillis());
+            } else {
+                try {
+                    bucket.asBlocking().consume(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                // waiting for the token is the intended pacing (including backoff penalties)
+                intendedStartMillis = System.currentTimeMillis();
+            }
+            if (!executor.startInstance((long) intendedStartMillis)) {
                 break;
             }
-            executor.startInstance();
-            stats.incStartedProcessInstances();
         }
     }
 
@@ -0,0 +1,148 @@
+package org.camunda.community.benchmarks.flowcontrol;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of outstanding PI-start commands at {@code benchmark.maxInFlightStarts} (0 = unlimited).
+ * <p>
+ * Starting a PI is fire-and-forget, so when the gateway slows down, the schedulers would otherwise keep
+ * piling up pending commands (and their payloads) in memory without any limit. Instead, a permit is
+ * acquired before a command is sent and released once it finally completed, successfully or not, which
+ * makes the schedulers block while the window is full.
+ * <p>
+ * With the {@code concurrencyLimit} strategy, the limit isn't fixed, but continuously re-sized by a
+ * {@link VegasConcurrencyLimit} from the round-trip latency of the completed commands
+ * ({@code benchmark.maxInFlightStarts} then only caps how far it may grow).
+ * <p>
+ * Exposes the gauges {@code pi_inflight_starts} and {@code pi_inflight_limit} and the timer
+ * {@code pi_inflight_permit_wait}.
+ */
+@Component
+public class InFlightStartLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InFlightStartLimiter.class);
+
+    // null if unlimited
+    private final AdjustableSemaphore permits;
+    // null unless the concurrencyLimit strategy is used
+    private final VegasConcurrencyLimit concurrencyLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer permitWait;
+    private int limit;
+
+    public InFlightStartLimiter(BenchmarkConfiguration config, MeterRegistry meterRegistry) {
+        int maxInFlight = config.getMaxInFlightStarts();
+        if ("concurrencyLimit".equals(config.getStartRateAdjustmentStrategy())) {
+            int maxLimit = maxInFlight > 0 ? Math.min(maxInFlight, config.getMaxConcurrencyLimit()) : config.getMaxConcurrencyLimit();
+            this.concurrencyLimit = new VegasConcurrencyLimit(config.getInitialConcurrencyLimit(), config.getMinConcurrencyLimit(), maxLimit);
+            this.limit = concurrencyLimit.getLimit();
+            LOG.info("Adapting in-flight PI starts limit from command latency: initial={}, min={}, max={}",
+                    limit, config.getMinConcurrencyLimit(), maxLimit);
+        } else {
+            this.concurrencyLimit = null;
+            this.limit = maxInFlight;
+            if (maxInFlight > 0) {
+                LOG.info("Limiting in-flight PI starts to {}", maxInFlight);
+            }
+        }
+        this.permits = limit > 0 ? new AdjustableSemaphore(limit) : null;
+        this.permitWait = meterRegistry.timer("pi_inflight_permit_wait");
+        meterRegistry.gauge("pi_inflight_starts", inFlight);
+        meterRegistry.gauge("pi_inflight_limit", this, InFlightStartLimiter::getLimit);
+    }
+
+    /**
+     * Blocks until a start may be sent.
+     *
+     * @return {@code false} if interrupted while waiting, in which case the start must not be sent
+     */
+    public boolean acquire() {
+        if (permits != null) {
+            long waitStart = System.nanoTime();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            permitWait.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+        inFlight.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Must be called exactly once for every successful {@link #acquire()}, without a latency sample
+     * (i.e. when the command was never sent).
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Must be called exactly once for every successful {@link #acquire()} once the command completed.
+     *
+     * @param latencyNanos round-trip time of the command
+     * @param error        {@code null} if the command succeeded
+     */
+    public void release(long latencyNanos, Throwable error) {
+        if (concurrencyLimit != null) {
+            if (error == null) {
+                resize(concurrencyLimit.onSample(latencyNanos, inFlight.get(), false));
+            } else if (isOverload(error)) {
+                resize(concurrencyLimit.onSample(latencyNanos, inFlight.get(), true));
+            }
+            // other errors say nothing about the load of the cluster
+        }
+        release();
+    }
+
+    private static boolean isOverload(Throwable error) {
+        Status.Code code = Status.fromThrowable(error).getCode();
+        return code == Status.Code.RESOURCE_EXHAUSTED || code == Status.Code.UNAVAILABLE
+                || code == Status.Code.DEADLINE_EXCEEDED;
+    }
+
+    private synchronized void resize(int newLimit) {
+        if (newLimit > limit) {
+            permits.release(newLimit - limit);
+        } else if (newLimit < limit) {
+            // may go negative, then no permits are handed out until enough commands completed
+            permits.reducePermits(limit - newLimit);
+        }
+        limit = newLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    private static class AdjustableSemaphore extends Semaphore {
+
+        AdjustableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.camunda.community.benchmarks.flowcontrol;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TCP-Vegas-style concurrency limit for the {@code concurrencyLimit} strategy, sized from the measured
+ * round-trip latency of PI-start commands instead of from backpressure rejections.
+ * <p>
+ * The shortest RTT seen so far is taken as the no-load latency. From it, every sample estimates how many
+ * of the in-flight commands are queued up somewhere (gateway or broker) instead of being processed:
+ * {@code queue = limit * (1 - rttNoLoad / rtt)}. While that queue is small the limit grows, once it gets
+ * bigger than a few commands (thresholds growing with {@code log10(limit)}) the limit shrinks, so it settles
+ * right at the knee where latency starts to rise - before the broker has to reject anything. Backpressure
+ * and timeouts still shrink the limit directly.
+ * <p>
+ * As the no-load RTT can drift (or have been measured during an unrepresentative quiet moment), it is
+ * re-probed every now and then by resetting it to the next sample.
+ */
+public class VegasConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    // roughly every probeMultiplier * limit samples, the no-load RTT is measured again
+    private final int probeMultiplier;
+
+    private double limit;
+    private long rttNoLoadNanos = Long.MAX_VALUE;
+    private long samplesUntilProbe;
+
+    public VegasConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, 30);
+    }
+
+    VegasConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int probeMultiplier) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limit range [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeMultiplier = probeMultiplier;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.samplesUntilProbe = nextProbeInterval();
+    }
+
+    /**
+     * @param rttNanos round-trip time of the command
+     * @param inFlight number of commands currently in flight
+     * @param dropped  whether the command was rejected because of overload (backpressure, timeout)
+     * @return the new limit
+     */
+    public synchronized int onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = nextProbeInterval();
+            rttNoLoadNanos = rttNanos;
+            return getLimit();
+        }
+        if (dropped) {
+            limit = Math.max(minLimit, limit - log10(limit));
+            return getLimit();
+        }
+        if (rttNanos <= 0) {
+            return getLimit();
+        }
+        rttNoLoadNanos = Math.min(rttNoLoadNanos, rttNanos);
+
+        // The limit isn't what's holding the load back, so the latency says nothing about it
+        if (inFlight * 2 < limit) {
+            return getLimit();
+        }
+
+        double log = log10(limit);
+        double queueSize = Math.ceil(limit * (1 - (double) rttNoLoadNanos / rttNanos));
+        double newLimit;
+        if (queueSize <= log) {
+            newLimit = limit + 6 * log; // beta: hardly any queueing, grow fast
+        } else if (queueSize < 3 * log) {
+            newLimit = limit + log;
+        } else if (queueSize > 6 * log) {
+            newLimit = limit - log;
+        } else {
+            newLimit = limit;
+        }
+        limit = Math.clamp(newLimit, minLimit, maxLimit);
+        return getLimit();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized long getRttNoLoadNanos() {
+        return rttNoLoadNanos;
+    }
+
+    private static double log10(double limit) {
+        return Math.max(1, Math.log10(limit));
+    }
+
+    private long nextProbeInterval() {
+        // jittered, so several starters don't all probe at the same moment
+        return (long) ((probeMultiplier + ThreadLocalRandom.current().nextDouble()) * Math.max(limit, 1));
+    }
+}
@@ -0,0 +1,164 @@
+package org.camunda.community.benchmarks.metrics;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip latency of every client command (send until the gateway's response arrived), per operation
+ * (e.g. {@code CreateProcessInstance}, {@code CompleteJob}) and outcome status code. Unlike the PI cycle
+ * time, this is the gateway's acknowledgement latency only, separating it from engine processing time.
+ * <p>
+ * Recording is lock-free and allocation-free (an HdrHistogram {@link Recorder} per operation and status).
+ * Once a second, the recorders are rolled into the histograms of the last {@value #WINDOW_SECONDS} seconds,
+ * which back the Micrometer gauges {@code command_latency{op,status,quantile}} (in milliseconds), and
+ * into the histogram since the last {@link #drainSinceLastPrint()} used by the console status.
+ * The counter {@code command_latency_count{op,status}} counts all recorded commands. With an {@link HdrIntervalLog},
+ * the exact latencies are written to it as well.
+ */
+@Component
+public class CommandLatencyRecorder {
+
+    static final int WINDOW_SECONDS = 10;
+    // everything above is recorded as this value
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final MeterRegistry meterRegistry;
+    private final HdrIntervalLog intervalLog;
+    private final ConcurrentMap<String, ConcurrentMap<String, Series>> series = new ConcurrentHashMap<>();
+
+    public CommandLatencyRecorder(MeterRegistry meterRegistry, HdrIntervalLog intervalLog) {
+        this.meterRegistry = meterRegistry;
+        this.intervalLog = intervalLog;
+    }
+
+    /**
+     * @param operation    the kind of command, e.g. {@code CompleteJob}
+     * @param error        {@code null} if the command succeeded
+     * @param latencyNanos time from sending the command until its response arrived
+     */
+    public void record(String operation, Throwable error, long latencyNanos) {
+        String status = error == null ? "OK" : Status.fromThrowable(error).getCode().name();
+        seriesFor(operation, status).record(latencyNanos);
+    }
+
+    private Series seriesFor(String operation, String status) {
+        ConcurrentMap<String, Series> byStatus = series.get(operation);
+        if (byStatus == null) {
+            byStatus = series.computeIfAbsent(operation, op -> new ConcurrentHashMap<>());
+        }
+        Series s = byStatus.get(status);
+        if (s == null) {
+            s = byStatus.computeIfAbsent(status, st -> new Series(operation, st));
+        }
+        return s;
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void roll() {
+        series.values().forEach(byStatus -> byStatus.values().forEach(Series::roll));
+    }
+
+    /**
+     * @return the latencies (in microseconds) recorded since the last call, by "operation status", sorted
+     */
+    public Map<String, Histogram> drainSinceLastPrint() {
+        Map<String, Histogram> result = new TreeMap<>();
+        series.values().forEach(byStatus -> byStatus.values().forEach(s -> {
+            Histogram histogram = s.drainSinceLastPrint();
+            if (histogram.getTotalCount() > 0) {
+                result.put(s.operation + " " + s.status, histogram);
+            }
+        }));
+        return result;
+    }
+
+    private class Series {
+
+        private final String operation;
+        private final String status;
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 2);
+        // null unless benchmark.hdrLogFile is set
+        private final Recorder logRecorder;
+        private final Histogram[] window = new Histogram[WINDOW_SECONDS];
+        private final Histogram windowSum = newHistogram();
+        private final Histogram sinceLastPrint = newHistogram();
+        private Histogram interval;
+        private int slot;
+        private long totalCount;
+
+        Series(String operation, String status) {
+            this.operation = operation;
+            this.status = status;
+            this.logRecorder = intervalLog.recorder("command_latency." + operation + "." + status);
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                window[i] = newHistogram();
+            }
+            register("0.5", 50);
+            register("0.99", 99);
+            register("0.999", 99.9);
+            register("max", 100);
+            FunctionCounter.builder("command_latency_count", this, Series::getTotalCount)
+                    .tags("op", operation, "status", status)
+                    .register(meterRegistry);
+        }
+
+        private void register(String quantile, double percentile) {
+            Gauge.builder("command_latency", this, s -> s.getWindowValueAtPercentile(percentile))
+                    .tags("op", operation, "status", status, "quantile", quantile)
+                    .baseUnit("milliseconds")
+                    .description("Client command round-trip latency over the last " + WINDOW_SECONDS + " seconds")
+                    .register(meterRegistry);
+        }
+
+        void record(long latencyNanos) {
+            long micros = Math.max(0, latencyNanos / 1000);
+            recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, micros));
+            if (logRecorder != null) {
+                logRecorder.recordValue(micros);
+            }
+        }
+
+        synchronized void roll() {
+            interval = recorder.getIntervalHistogram(interval);
+            slot = (slot + 1) % WINDOW_SECONDS;
+            window[slot].reset();
+            window[slot].add(interval);
+            windowSum.reset();
+            for (Histogram h : window) {
+                windowSum.add(h);
+            }
+            sinceLastPrint.add(interval);
+            totalCount += interval.getTotalCount();
+        }
+
+        synchronized Histogram drainSinceLastPrint() {
+            Histogram copy = sinceLastPrint.copy();
+            sinceLastPrint.reset();
+            return copy;
+        }
+
+        synchronized double getWindowValueAtPercentile(double percentile) {
+            return windowSum.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        synchronized long getTotalCount() {
+            return totalCount;
+        }
+
+        private static Histogram newHistogram() {
+            return new Histogram(HIGHEST_TRACKABLE_MICROS, 2);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.camunda.community.benchmarks.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the exact latencies of a run to an HdrHistogram interval log ({@code benchmark.hdrLogFile}), so tail
+ * latencies can be analyzed after a multi-hour run, and merged across starters, with the HdrHistogram tools
+ * (e.g. {@code HistogramLogProcessor}). The Micrometer timers only keep percentiles over a decaying window.
+ * <p>
+ * Every latency gets its own {@link Recorder}, tagged in the log: {@code pi_cycletime}, {@code job_timer.<type>}
+ * and {@code command_latency.<op>.<status>}. All values are in microseconds. Recording is wait-free; once a
+ * second, a dedicated thread writes the interval histograms of all recorders that recorded anything,
+ * compressed, and flushes the file.
+ */
+@Component
+public class HdrIntervalLog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HdrIntervalLog.class);
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private final String file;
+    private final String starterId;
+    private final List<TaggedRecorder> recorders = new CopyOnWriteArrayList<>();
+    private PrintStream out;
+    private HistogramLogWriter writer;
+    private volatile Thread thread;
+
+    public HdrIntervalLog(BenchmarkConfiguration config) {
+        this(config.getHdrLogFile(), config.getStarterId());
+    }
+
+    HdrIntervalLog(String file, String starterId) {
+        this.file = file == null || file.isBlank() ? null : file;
+        this.starterId = starterId;
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * @param tag identifies the latency in the log
+     * @return a recorder for values in microseconds, or {@code null} if the log is disabled
+     */
+    public Recorder recorder(String tag) {
+        if (!isEnabled()) {
+            return null;
+        }
+        // auto-resizing, so no value is ever out of range
+        Recorder recorder = new Recorder(3);
+        recorders.add(new TaggedRecorder(tag.replaceAll("[^A-Za-z0-9_.:-]", "_"), recorder));
+        return recorder;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        open();
+        LOG.info("Writing HdrHistogram interval log to {}", file);
+        thread = Thread.ofPlatform().name("hdr-interval-log").daemon().start(this::run);
+    }
+
+    void open() {
+        try {
+            Path path = Path.of(file);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            out = new PrintStream(new BufferedOutputStream(new FileOutputStream(path.toFile())), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write the HdrHistogram interval log to " + file, e);
+        }
+        writer = new HistogramLogWriter(out);
+        long now = System.currentTimeMillis();
+        writer.outputComment("Latencies in microseconds of starter " + starterId);
+        writer.outputLogFormatVersion();
+        writer.outputStartTime(now);
+        writer.setBaseTime(now);
+        writer.outputBaseTime(now);
+        writer.outputLegend();
+        out.flush();
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(INTERVAL_MILLIS - System.currentTimeMillis() % INTERVAL_MILLIS);
+                writeIntervals();
+            }
+        } catch (InterruptedException e) {
+            // stopped, the last interval is written by stop()
+        }
+    }
+
+    /**
+     * Writes what was recorded since the last call. Must only be called by one thread.
+     */
+    void writeIntervals() {
+        for (TaggedRecorder tagged : recorders) {
+            tagged.interval = tagged.recorder.getIntervalHistogram(tagged.interval);
+            if (tagged.interval.getTotalCount() == 0) {
+                continue;
+            }
+            tagged.interval.setTag(tagged.tag);
+            double startSeconds = (tagged.interval.getStartTimeStamp() - writer.getBaseTime()) / 1000.0;
+            double endSeconds = (tagged.interval.getEndTimeStamp() - writer.getBaseTime()) / 1000.0;
+            // the max column in milliseconds, for reading the log as is
+            writer.outputIntervalHistogram(startSeconds, endSeconds, tagged.interval, 1000.0);
+        }
+        out.flush();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        writeIntervals();
+        writer.close();
+    }
+
+    private static class TaggedRecorder {
+
+        private final String tag;
+        private final Recorder recorder;
+        private Histogram interval;
+
+        TaggedRecorder(String tag, Recorder recorder) {
+            this.tag = tag;
+            this.recorder = recorder;
+        }
+    }
+}
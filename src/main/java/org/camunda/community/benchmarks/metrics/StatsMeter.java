@@ -0,0 +1,99 @@
+package org.camunda.community.benchmarks.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts an event (started PIs, completed jobs, ...) once, for both the rate calculations within the app and
+ * the Micrometer export. Marking it is a single striped {@link LongAdder} increment, without any lookup by name:
+ * the Micrometer counter of the same name is a {@link FunctionCounter} reading the adder when scraped.
+ * <p>
+ * The one-minute rate is the same as Dropwizard's {@code Meter.getOneMinuteRate()}: the events of every 5 second
+ * tick are averaged in with a weight decaying over a minute. Like there, every mark (and every read) checks
+ * whether a tick is due, and the first thread to see it does the tick, so the ticks happen on time no matter how
+ * rarely the rate is read. Unlike a Dropwizard meter, there is only one adder instead of one per rate it offers
+ * (1, 5 and 15 minutes, plus the count).
+ */
+public class StatsMeter {
+
+    static final long TICK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final double ONE_MINUTE_ALPHA = 1 - Math.exp(-5 / 60.0);
+
+    private final LongAdder count = new LongAdder();
+    private final LongSupplier nanoClock;
+    private final AtomicLong lastTickNanos;
+
+    // guarded by this, only touched when ticking
+    private long lastTickCount;
+    private boolean initialized;
+    private volatile double ratePerNanos;
+
+    public StatsMeter(String name, MeterRegistry meterRegistry) {
+        this(System::nanoTime);
+        FunctionCounter.builder(name, count, LongAdder::sum).register(meterRegistry);
+    }
+
+    StatsMeter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.lastTickNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    public void mark() {
+        tickIfNecessary();
+        count.increment();
+    }
+
+    public void mark(long n) {
+        tickIfNecessary();
+        count.add(n);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the events per second, exponentially weighted over the last minute
+     */
+    public double getOneMinuteRate() {
+        tickIfNecessary();
+        return ratePerNanos * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private void tickIfNecessary() {
+        long oldTickNanos = lastTickNanos.get();
+        long age = nanoClock.getAsLong() - oldTickNanos;
+        if (age >= TICK_INTERVAL_NANOS) {
+            long ticks = age / TICK_INTERVAL_NANOS;
+            // only the thread moving the tick on does the ticks
+            if (lastTickNanos.compareAndSet(oldTickNanos, oldTickNanos + ticks * TICK_INTERVAL_NANOS)) {
+                tick(ticks);
+            }
+        }
+    }
+
+    private synchronized void tick(long ticks) {
+        long currentCount = count.sum();
+        // like Dropwizard, everything since the last tick counts for the first one, the rest were empty
+        update(currentCount - lastTickCount);
+        for (long i = 1; i < ticks; i++) {
+            update(0);
+        }
+        lastTickCount = currentCount;
+    }
+
+    private void update(long events) {
+        double instantRate = (double) events / TICK_INTERVAL_NANOS;
+        if (initialized) {
+            ratePerNanos += ONE_MINUTE_ALPHA * (instantRate - ratePerNanos);
+        } else {
+            ratePerNanos = instantRate;
+            initialized = true;
+        }
+    }
+}
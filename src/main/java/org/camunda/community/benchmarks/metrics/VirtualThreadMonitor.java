@@ -0,0 +1,151 @@
+package org.camunda.community.benchmarks.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Shows how busy the carrier threads of the virtual threads are and how often virtual threads get pinned to
+ * them, to compare {@code benchmark.jobHandlerExecution=virtualThreads} with the scheduler mode.
+ * <p>
+ * The gauge {@code virtual_thread_carrier_utilization} is the CPU time the carrier threads used during the last
+ * 5 seconds, relative to the time {@code jdk.virtualThreadScheduler.parallelism} carriers could have used
+ * (carriers are recognized by the name of the default scheduler's threads, {@code ForkJoinPool-N-worker-M}).
+ * Pinning is taken from the JFR event {@code jdk.VirtualThreadPinned}, which is emitted when a virtual thread
+ * blocked for longer than {@code benchmark.virtualThreadPinnedThresholdMillis} while it couldn't unmount
+ * (e.g. inside {@code synchronized} before JDK 24 or in native code): the counter {@code virtual_thread_pinned}
+ * and the timer {@code virtual_thread_pinned_duration}. The first stack of every distinct pinning location is logged.
+ */
+@Component
+@ConditionalOnExpression("'${benchmark.jobHandlerExecution:scheduler}' == 'virtualThreads' or ${benchmark.virtualThreadMetrics:false}")
+public class VirtualThreadMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadMonitor.class);
+
+    static final Pattern CARRIER_THREAD_NAME = Pattern.compile("ForkJoinPool-\\d+-worker-\\d+");
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    // only so many distinct pinning locations are logged
+    private static final int MAX_LOGGED_LOCATIONS = 20;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    private final Duration pinnedThreshold;
+    private final Counter pinned;
+    private final Timer pinnedDuration;
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+
+    // CPU time per carrier thread id at the last sample
+    private Map<Long, Long> lastCpuNanos = new HashMap<>();
+    private long lastSampleNanos = System.nanoTime();
+    private volatile double carrierUtilization;
+    private RecordingStream recording;
+
+    public VirtualThreadMonitor(BenchmarkConfiguration config, MeterRegistry meterRegistry) {
+        this.pinnedThreshold = Duration.ofMillis(config.getVirtualThreadPinnedThresholdMillis());
+        this.pinned = meterRegistry.counter("virtual_thread_pinned");
+        this.pinnedDuration = Timer.builder("virtual_thread_pinned_duration")
+                .description("How long virtual threads blocked while pinned to their carrier")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("virtual_thread_carrier_utilization", this, VirtualThreadMonitor::getCarrierUtilization);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        try {
+            recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::onPinned);
+            recording.startAsync();
+            LOG.info("Monitoring virtual threads: {} carriers, reporting pinning longer than {} ms",
+                    parallelism, pinnedThreshold.toMillis());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not start JFR recording, virtual thread pinning is not reported", e);
+            recording = null;
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        pinnedDuration.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty() || loggedLocations.size() >= MAX_LOGGED_LOCATIONS) {
+            return;
+        }
+        String location = describe(stackTrace.getFrames().getFirst());
+        if (loggedLocations.add(location)) {
+            StringBuilder stack = new StringBuilder();
+            stackTrace.getFrames().forEach(frame -> stack.append("\n\tat ").append(describe(frame)));
+            LOG.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), location, stack);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Scheduled(fixedRate = 5 * 1000)
+    public synchronized void sampleCarrierUtilization() {
+        long now = System.nanoTime();
+        Map<Long, Long> cpuNanos = new HashMap<>();
+        long usedNanos = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info == null || !CARRIER_THREAD_NAME.matcher(info.getThreadName()).matches()) {
+                continue;
+            }
+            long cpu = threads.getThreadCpuTime(info.getThreadId());
+            if (cpu >= 0) {
+                cpuNanos.put(info.getThreadId(), cpu);
+                // carriers started since the last sample count with all their CPU time
+                usedNanos += cpu - lastCpuNanos.getOrDefault(info.getThreadId(), 0L);
+            }
+        }
+        carrierUtilization = utilization(usedNanos, now - lastSampleNanos, parallelism);
+        lastCpuNanos = cpuNanos;
+        lastSampleNanos = now;
+    }
+
+    static double utilization(long usedCpuNanos, long elapsedNanos, int carriers) {
+        if (elapsedNanos <= 0 || carriers <= 0) {
+            return 0;
+        }
+        return Math.min(1.0, Math.max(0, (double) usedCpuNanos / ((double) elapsedNanos * carriers)));
+    }
+
+    public double getCarrierUtilization() {
+        return carrierUtilization;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
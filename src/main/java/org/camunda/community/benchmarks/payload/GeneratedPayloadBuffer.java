@@ -0,0 +1,113 @@
+package org.camunda.community.benchmarks.payload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded buffer of ready-made payload heads (see {@link PayloadTemplate}), filled by background
+ * producer threads from a {@link PayloadGenerator}, used when {@code benchmark.generatePayloadPerInstance=true}.
+ * <p>
+ * This keeps generating random values and serializing payloads off the scheduler threads: the start
+ * hot path only dequeues a head and splices the start timestamp into it. If the producers can't keep
+ * up, {@link #next(long, long)} generates the payload inline instead of waiting, and counts that in
+ * {@code payload_buffer_underflow} - a steadily growing count means the start rate is limited by
+ * payload generation, so more {@code benchmark.payloadProducerThreads} are needed.
+ */
+public class GeneratedPayloadBuffer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GeneratedPayloadBuffer.class);
+
+    private final PayloadGenerator generator;
+    private final PayloadTemplate template;
+    private final BlockingQueue<String> heads;
+    private final int producerThreads;
+    private final String name;
+    private final Counter underflows;
+    private final List<Thread> producers = new ArrayList<>();
+
+    public GeneratedPayloadBuffer(PayloadGenerator generator, PayloadTemplate template, int capacity,
+                                  int producerThreads, MeterRegistry meterRegistry) {
+        this(generator, template, capacity, producerThreads, meterRegistry, "default");
+    }
+
+    /**
+     * @param name tags the metrics ({@code payload}), when there's a buffer per process of the workload mix
+     */
+    public GeneratedPayloadBuffer(PayloadGenerator generator, PayloadTemplate template, int capacity,
+                                  int producerThreads, MeterRegistry meterRegistry, String name) {
+        this.generator = generator;
+        this.template = template;
+        this.heads = new ArrayBlockingQueue<>(capacity);
+        this.producerThreads = producerThreads;
+        this.name = name;
+        this.underflows = meterRegistry.counter("payload_buffer_underflow", "payload", name);
+        meterRegistry.gauge("payload_buffer_size", Tags.of("payload", name), heads, BlockingQueue::size);
+    }
+
+    public void start() {
+        // fail fast on templates that don't produce a JSON object, instead of in every producer
+        heads.offer(nextHead());
+        for (int i = 0; i < producerThreads; i++) {
+            producers.add(Thread.ofPlatform().daemon().name("payload-producer-" + name + "-" + i).start(this::produce));
+        }
+        LOG.info("Started {} payload producer thread(s) filling a buffer of {} payloads", producerThreads,
+                heads.remainingCapacity() + heads.size());
+    }
+
+    private void produce() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                heads.put(nextHead());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOG.error("Payload producer stopped, starts will generate payloads inline from now on", e);
+                return;
+            }
+        }
+    }
+
+    private String nextHead() {
+        return template.headFor(generator.generate());
+    }
+
+    /**
+     * @return the variables document for the next process instance
+     */
+    public String next(long startMillis) {
+        return next(startMillis, startMillis);
+    }
+
+    /**
+     * @return the variables document for the next process instance, see {@link PayloadTemplate#render(String, long, long)}
+     */
+    public String next(long startMillis, long intendedStartMillis) {
+        String head = heads.poll();
+        if (head == null) {
+            underflows.increment();
+            head = nextHead();
+        }
+        return PayloadTemplate.render(head, startMillis, intendedStartMillis);
+    }
+
+    public void stop() {
+        producers.forEach(Thread::interrupt);
+        for (Thread producer : producers) {
+            try {
+                producer.join(Duration.ofSeconds(5).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
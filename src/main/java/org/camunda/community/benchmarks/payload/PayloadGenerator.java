@@ -0,0 +1,144 @@
+package org.camunda.community.benchmarks.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates a fresh payload document per process instance from a payload file containing
+ * placeholders. The file is compiled once into literal and placeholder segments, so generating
+ * a payload is a single pass appending to a pre-sized builder.
+ * <p>
+ * Supported placeholders (the surrounding quotes are up to the payload file, so
+ * {@code "${UUID}"} yields a string, {@code ${RANDOM_INT:1:5}} a number):
+ * <ul>
+ *     <li>{@code ${UUID}} - a random (version 4) UUID per instance</li>
+ *     <li>{@code ${SEQ}} - a sequence number per instance, starting at 1 for every run</li>
+ *     <li>{@code ${RANDOM_INT:a:b}} - a uniformly distributed integer between a and b (both inclusive)</li>
+ *     <li>{@code ${RANDOM_STRING:len}} - a random alphanumeric string of exactly len characters</li>
+ *     <li>{@code ${RANDOM_STRING:min:max}} - same, with a length uniformly distributed between min and max</li>
+ *     <li>{@code ${RANDOM_STRING:min:max:exponential}} - same, with mostly short strings and a long tail
+ *     up to max (exponentially distributed above min, mean at a quarter of the range)</li>
+ * </ul>
+ * Anything else looking like a placeholder (including {@code ${RANDOM_UUID}}, which is replaced once per
+ * run before the template is compiled) is kept as is.
+ */
+public class PayloadGenerator {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(UUID|SEQ|RANDOM_INT|RANDOM_STRING)(?::([^}]*))?}");
+
+    private static final char[] ALPHANUMERIC = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile int lastLength = 256;
+
+    public PayloadGenerator(String template) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        int literalStart = 0;
+        while (matcher.find()) {
+            if (matcher.start() > literalStart) {
+                segments.add(literal(template.substring(literalStart, matcher.start())));
+            }
+            segments.add(placeholder(matcher.group(1), matcher.group(2), matcher.group()));
+            literalStart = matcher.end();
+        }
+        if (literalStart < template.length()) {
+            segments.add(literal(template.substring(literalStart)));
+        }
+    }
+
+    /**
+     * @return a new payload document; safe to call from multiple threads
+     */
+    public String generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long seq = sequence.incrementAndGet();
+        // sized after the previous payload, so the builder normally never has to grow
+        StringBuilder sb = new StringBuilder(lastLength + 16);
+        for (Segment segment : segments) {
+            segment.appendTo(sb, random, seq);
+        }
+        lastLength = sb.length();
+        return sb.toString();
+    }
+
+    private interface Segment {
+        void appendTo(StringBuilder sb, ThreadLocalRandom random, long seq);
+    }
+
+    private static Segment literal(String text) {
+        return (sb, random, seq) -> sb.append(text);
+    }
+
+    private static Segment placeholder(String name, String args, String placeholder) {
+        String[] params = args == null || args.isEmpty() ? new String[0] : args.split(":");
+        try {
+            switch (name) {
+                case "UUID":
+                    expectParams(params, 0, 0, placeholder);
+                    // UUID.randomUUID() draws from a shared SecureRandom, which is needlessly slow here
+                    return (sb, random, seq) -> sb.append(randomUuid(random));
+                case "SEQ":
+                    expectParams(params, 0, 0, placeholder);
+                    return (sb, random, seq) -> sb.append(seq);
+                case "RANDOM_INT": {
+                    expectParams(params, 2, 2, placeholder);
+                    long min = Long.parseLong(params[0].trim());
+                    long max = Long.parseLong(params[1].trim());
+                    checkRange(min, max, placeholder);
+                    return (sb, random, seq) -> sb.append(random.nextLong(min, max + 1));
+                }
+                case "RANDOM_STRING": {
+                    expectParams(params, 1, 3, placeholder);
+                    int min = Integer.parseInt(params[0].trim());
+                    int max = params.length > 1 ? Integer.parseInt(params[1].trim()) : min;
+                    checkRange(min, max, placeholder);
+                    String distribution = params.length > 2 ? params[2].trim() : "uniform";
+                    if ("uniform".equalsIgnoreCase(distribution)) {
+                        return (sb, random, seq) -> appendRandomString(sb, random, random.nextInt(min, max + 1));
+                    }
+                    if ("exponential".equalsIgnoreCase(distribution)) {
+                        double mean = Math.max(1, (max - min) / 4.0);
+                        return (sb, random, seq) -> appendRandomString(sb, random,
+                                (int) Math.min(max, min + Math.round(-mean * Math.log(1 - random.nextDouble()))));
+                    }
+                    throw new IllegalArgumentException("Unknown size distribution '" + distribution + "' in " + placeholder
+                            + ", expected 'uniform' or 'exponential'");
+                }
+                default:
+                    throw new IllegalStateException("Unhandled placeholder " + placeholder);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in payload placeholder " + placeholder, e);
+        }
+    }
+
+    private static void expectParams(String[] params, int min, int max, String placeholder) {
+        if (params.length < min || params.length > max) {
+            throw new IllegalArgumentException("Wrong number of arguments in payload placeholder " + placeholder);
+        }
+    }
+
+    private static void checkRange(long min, long max, String placeholder) {
+        if (min < 0 && placeholder.startsWith("${RANDOM_STRING") || max < min) {
+            throw new IllegalArgumentException("Invalid range in payload placeholder " + placeholder);
+        }
+    }
+
+    private static void appendRandomString(StringBuilder sb, ThreadLocalRandom random, int length) {
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)]);
+        }
+    }
+
+    private static UUID randomUuid(ThreadLocalRandom random) {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L; // version 4
+        long lsb = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48); // IETF variant
+        return new UUID(msb, lsb);
+    }
+}
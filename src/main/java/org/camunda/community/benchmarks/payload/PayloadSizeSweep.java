@@ -0,0 +1,176 @@
+package org.camunda.community.benchmarks.payload;
+
+import io.camunda.client.CamundaClientConfiguration;
+import io.camunda.client.api.JsonMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.camunda.community.benchmarks.StartPiExecutor;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Payload size sweep, enabled by setting {@code benchmark.payloadSweepSizes} (e.g. {@code 1KB,8KB,64KB,512KB}).
+ * <p>
+ * Steps through the configured sizes, holding each for {@code benchmark.payloadSweepStepDurationMillis},
+ * with a synthetic payload of that (serialized) size: the configured payload file padded with a random
+ * {@value #PADDING_VARIABLE} string. After each step, the PI start/completion rates, the backpressure
+ * percentage and the cycle time percentiles of that step are appended to
+ * {@code benchmark.payloadSweepResultsFile} (CSV). After the last step, the last size is kept. The first size is
+ * held for {@code benchmark.payloadSweepWarmupMillis} before its step is measured.
+ * <p>
+ * Note that cycle times of a step include the instances still running from the previous step, so
+ * steps should be considerably longer than the typical cycle time.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark.payloadSweepSizes")
+public class PayloadSizeSweep {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PayloadSizeSweep.class);
+
+    static final String PADDING_VARIABLE = "benchmark_padding";
+    static final String CSV_HEADER = "step,payload_bytes,duration_seconds,pi_started_per_second,pi_completed_per_second,"
+            + "backpressure_percentage,cycletime_p50_ms,cycletime_p95_ms,cycletime_p99_ms,cycletime_max_ms\n";
+
+    private final StartPiExecutor executor;
+    private final StatisticsCollector stats;
+    private final BenchmarkConfiguration config;
+    private final JsonMapper jsonMapper;
+    private final Recorder cycleTimeRecorder = new Recorder(3);
+
+    private Map<String, Object> basePayload;
+    private volatile Thread worker;
+
+    public PayloadSizeSweep(StartPiExecutor executor, StatisticsCollector stats, BenchmarkConfiguration config,
+                            CamundaClientConfiguration clientConfiguration) {
+        this.executor = executor;
+        this.stats = stats;
+        this.config = config;
+        this.jsonMapper = clientConfiguration.getJsonMapper();
+    }
+
+    /**
+     * Fails the startup on an invalid sweep configuration, before anything is written.
+     */
+    @PostConstruct
+    public void validate() throws IOException {
+        if (config.getPayloadSweepSizes().isEmpty()) {
+            return;
+        }
+        executor.checkPayloadReplaceable();
+        basePayload = jsonMapper.fromJsonAsMap(executor.tryReadVariables(config.getPayloadPath().getInputStream()));
+    }
+
+    /**
+     * Starts the sweep. Called by {@code BenchmarkApplication} once the process is deployed and the workers are
+     * started, as the first step would measure a starter that can't start or complete anything yet otherwise.
+     */
+    public void start() {
+        List<DataSize> sizes = config.getPayloadSweepSizes();
+        if (sizes.isEmpty()) {
+            return;
+        }
+        Path resultsFile = Path.of(config.getPayloadSweepResultsFile());
+        try {
+            Files.writeString(resultsFile, CSV_HEADER, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write payload size sweep results to " + resultsFile, e);
+        }
+        stats.addCycleTimeRecorder(cycleTimeRecorder);
+
+        LOG.info("Starting payload size sweep over {} with {} ms per step after a {} ms warm-up, writing results to {}",
+                sizes, config.getPayloadSweepStepDurationMillis(), config.getPayloadSweepWarmupMillis(),
+                resultsFile.toAbsolutePath());
+        worker = Thread.ofVirtual().name("payload-size-sweep").start(() -> sweep(sizes, resultsFile));
+    }
+
+    private void sweep(List<DataSize> sizes, Path resultsFile) {
+        try {
+            for (int step = 0; step < sizes.size(); step++) {
+                Map<String, Object> payload = syntheticPayload(basePayload, sizes.get(step).toBytes(), jsonMapper);
+                long payloadBytes = jsonMapper.toJson(payload).getBytes(StandardCharsets.UTF_8).length;
+                executor.replacePayload(payload);
+                if (step == 0 && config.getPayloadSweepWarmupMillis() > 0) {
+                    // the first starts, the JIT and the connection pools would only count for the first step
+                    LOG.info("Payload size sweep warm-up with {} bytes", payloadBytes);
+                    Thread.sleep(config.getPayloadSweepWarmupMillis());
+                }
+                LOG.info("Payload size sweep step {}/{}: {} bytes", step + 1, sizes.size(), payloadBytes);
+
+                long started = stats.getStartedPiMeter().getCount();
+                long completed = stats.getCompletedProcessInstancesMeter().getCount();
+                long backpressure = stats.getBackpressureOnStartPiMeter().getCount();
+                cycleTimeRecorder.reset();
+                long stepStart = System.nanoTime();
+
+                Thread.sleep(config.getPayloadSweepStepDurationMillis());
+
+                double seconds = (System.nanoTime() - stepStart) / 1e9;
+                String row = resultRow(step + 1, payloadBytes, seconds,
+                        stats.getStartedPiMeter().getCount() - started,
+                        stats.getCompletedProcessInstancesMeter().getCount() - completed,
+                        stats.getBackpressureOnStartPiMeter().getCount() - backpressure,
+                        cycleTimeRecorder.getIntervalHistogram());
+                Files.writeString(resultsFile, row, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                LOG.info("Payload size sweep result: {}", row.strip());
+            }
+            LOG.info("Payload size sweep finished, keeping the last payload size");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write payload size sweep results to " + resultsFile, e);
+        }
+    }
+
+    /**
+     * Pads the given payload with a random string so that its JSON serialization has (roughly, as the
+     * per-instance benchmark fields are added later on) the target size. Payloads already bigger than
+     * that are returned unpadded.
+     */
+    static Map<String, Object> syntheticPayload(Map<String, Object> basePayload, long targetBytes, JsonMapper jsonMapper) {
+        Map<String, Object> payload = new LinkedHashMap<>(basePayload);
+        payload.put(PADDING_VARIABLE, "");
+        long missing = targetBytes - jsonMapper.toJson(payload).getBytes(StandardCharsets.UTF_8).length;
+        if (missing <= 0) {
+            payload.remove(PADDING_VARIABLE);
+            return payload;
+        }
+        payload.put(PADDING_VARIABLE, new PayloadGenerator("${RANDOM_STRING:" + missing + "}").generate());
+        return payload;
+    }
+
+    static String resultRow(int step, long payloadBytes, double seconds, long started, long completed,
+                            long backpressure, Histogram cycleTimes) {
+        return String.format(Locale.ROOT, "%d,%d,%.1f,%.1f,%.1f,%.3f,%d,%d,%d,%d\n",
+                step, payloadBytes, seconds, started / seconds, completed / seconds,
+                started == 0 ? 0.0 : backpressure * 100.0 / started,
+                cycleTimes.getValueAtPercentile(50), cycleTimes.getValueAtPercentile(95),
+                cycleTimes.getValueAtPercentile(99), cycleTimes.getMaxValue());
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread w = worker;
+        if (w != null) {
+            w.interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.camunda.community.benchmarks.payload;
+
+import io.camunda.client.api.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.camunda.community.benchmarks.StartPiExecutor;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The variables of the PIs started from one payload file, in whichever mode is configured: a map copied
+ * for every instance (default), a {@link PayloadTemplate} head ({@code benchmark.preEncodedPayload}), or a
+ * {@link GeneratedPayloadBuffer} ({@code benchmark.generatePayloadPerInstance}).
+ * <p>
+ * Every process of the workload mix with its own {@code payloadPath} has its own source, all others share
+ * the one of {@code benchmark.payloadPath}.
+ */
+public class PayloadSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PayloadSource.class);
+
+    private final String starterId;
+    private final PayloadTemplate template;
+
+    // volatile, as the payload size sweep replaces them while instances are being started
+    private volatile Map<String, Object> payload;
+    // only set when benchmark.preEncodedPayload is enabled
+    private volatile String head;
+    // only set when benchmark.generatePayloadPerInstance is enabled
+    private final GeneratedPayloadBuffer buffer;
+
+    /**
+     * @param name          identifies the source in logs and metrics
+     * @param variablesJson content of the payload file
+     */
+    public PayloadSource(String name, String variablesJson, BenchmarkConfiguration config, PayloadTemplate template,
+                         JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        this.starterId = config.getStarterId();
+        this.template = template;
+        if (config.isGeneratePayloadPerInstance()) {
+            // the payload file contains placeholders and is not necessarily valid JSON before generation
+            buffer = new GeneratedPayloadBuffer(new PayloadGenerator(variablesJson), template,
+                    config.getPayloadBufferSize(), config.getPayloadProducerThreads(), meterRegistry, name);
+            buffer.start();
+        } else {
+            buffer = null;
+            payload = jsonMapper.fromJsonAsMap(variablesJson);
+            if (config.isPreEncodedPayload()) {
+                head = template.headFor(payload);
+                LOG.info("Using pre-encoded payload template for {} process instance starts", name);
+            }
+        }
+    }
+
+    /**
+     * @param startMillis         when the PI is actually started
+     * @param intendedStartMillis when the scheduler intended to start it, only added to the variables if earlier
+     * @return the variables for the next PI, either a map or an already encoded JSON document (String)
+     */
+    public Object next(long startMillis, long intendedStartMillis) {
+        if (buffer != null) {
+            return buffer.next(startMillis, intendedStartMillis);
+        }
+        String currentHead = head;
+        if (currentHead != null) {
+            return PayloadTemplate.render(currentHead, startMillis, intendedStartMillis);
+        }
+        HashMap<Object, Object> variablesMap = new HashMap<>(payload);
+        variablesMap.put(StartPiExecutor.BENCHMARK_START_DATE_MILLIS, startMillis);
+        variablesMap.put(StartPiExecutor.BENCHMARK_STARTER_ID, starterId);
+        if (intendedStartMillis < startMillis) {
+            variablesMap.put(StartPiExecutor.BENCHMARK_INTENDED_START_DATE_MILLIS, intendedStartMillis);
+        }
+        return variablesMap;
+    }
+
+    /**
+     * Switches all subsequent PIs to a different payload (used by the payload size sweep).
+     */
+    public void replace(Map<String, Object> newPayload) {
+        checkReplaceable();
+        if (head != null) {
+            head = template.headFor(newPayload);
+        }
+        payload = newPayload;
+    }
+
+    /**
+     * @throws IllegalStateException if the payload can't be {@link #replace replaced}
+     */
+    public void checkReplaceable() {
+        if (buffer != null) {
+            throw new IllegalStateException("Payload can't be replaced when benchmark.generatePayloadPerInstance is enabled");
+        }
+    }
+
+    public void stop() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+}
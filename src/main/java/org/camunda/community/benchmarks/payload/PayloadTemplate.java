@@ -0,0 +1,85 @@
+package org.camunda.community.benchmarks.payload;
+
+import io.camunda.client.api.JsonMapper;
+import org.camunda.community.benchmarks.StartPiExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-encoded JSON form of the benchmark payload, used when {@code benchmark.preEncodedPayload=true}
+ * (and for payloads produced by the {@link GeneratedPayloadBuffer}).
+ * <p>
+ * Without it, every PI start copies the payload map, adds the per-instance fields and lets the
+ * client serialize the whole map again. Here a payload is serialized exactly once, into a
+ * "head": the JSON object without its closing brace, with the (constant) {@code benchmark_starter_id}
+ * already appended, ending right where the value of {@code benchmark_start_date_millis} goes.
+ * {@link #render(String, long)} only has to splice that timestamp and the closing brace onto it.
+ * <p>
+ * There is deliberately no pooled/thread-local buffer: a plain {@code head + millis + '}'} string
+ * concatenation already sizes and fills exactly one array for the resulting string, so copying out
+ * of a reusable builder would only add a second copy of a potentially large payload.
+ */
+public class PayloadTemplate {
+
+    private final JsonMapper jsonMapper;
+    private final String reservedFields;
+
+    public PayloadTemplate(String starterId, JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        this.reservedFields = "\"" + StartPiExecutor.BENCHMARK_STARTER_ID + "\":" + jsonMapper.toJson(starterId)
+                + ",\"" + StartPiExecutor.BENCHMARK_START_DATE_MILLIS + "\":";
+    }
+
+    /**
+     * Encodes a payload map into a head for {@link #render(String, long)}.
+     */
+    public String headFor(Map<String, Object> payload) {
+        Map<String, Object> fields = new LinkedHashMap<>(payload);
+        // these are written by render(), and must not appear twice in the resulting document
+        fields.remove(StartPiExecutor.BENCHMARK_START_DATE_MILLIS);
+        fields.remove(StartPiExecutor.BENCHMARK_INTENDED_START_DATE_MILLIS);
+        fields.remove(StartPiExecutor.BENCHMARK_STARTER_ID);
+        return headFor(jsonMapper.toJson(fields));
+    }
+
+    /**
+     * Turns an already serialized JSON object into a head for {@link #render(String, long)}. The
+     * document must not contain the reserved benchmark fields itself.
+     */
+    public String headFor(String payloadJson) {
+        return openObject(payloadJson) + reservedFields;
+    }
+
+    /**
+     * @return the complete variables document for one process instance
+     */
+    public static String render(String head, long startMillis) {
+        return head + startMillis + '}';
+    }
+
+    /**
+     * Like {@link #render(String, long)}, plus {@code benchmark_intended_start_date_millis} if the start is
+     * later than the scheduler intended it to be.
+     */
+    public static String render(String head, long startMillis, long intendedStartMillis) {
+        if (intendedStartMillis >= startMillis) {
+            return render(head, startMillis);
+        }
+        return head + startMillis + ",\"" + StartPiExecutor.BENCHMARK_INTENDED_START_DATE_MILLIS + "\":"
+                + intendedStartMillis + '}';
+    }
+
+    /**
+     * Strips the closing brace of a serialized JSON object so further fields can be appended,
+     * adding the separating comma unless the object is empty.
+     */
+    static String openObject(String jsonObject) {
+        String json = jsonObject.strip();
+        if (!json.startsWith("{") || !json.endsWith("}")) {
+            throw new IllegalArgumentException("Payload must be a JSON object, but was: " + json);
+        }
+        String body = json.substring(0, json.length() - 1).stripTrailing();
+        return body.endsWith("{") ? body : body + ',';
+    }
+}
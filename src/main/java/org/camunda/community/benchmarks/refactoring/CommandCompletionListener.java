@@ -0,0 +1,14 @@
+package org.camunda.community.benchmarks.refactoring;
+
+/**
+ * Notified by {@link RefactoredCommandWrapper} once a command has finally completed.
+ */
+@FunctionalInterface
+public interface CommandCompletionListener {
+
+    /**
+     * @param latencyNanos round-trip time of the last attempt of the command
+     * @param error        {@code null} if the command succeeded, otherwise the error of the last attempt
+     */
+    void onCompletion(long latencyNanos, Throwable error);
+}
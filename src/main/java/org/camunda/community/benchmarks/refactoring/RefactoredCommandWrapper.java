@@ -5,10 +5,12 @@ import io.camunda.client.api.worker.BackoffSupplier;
 import io.camunda.client.jobhandling.CommandWrapper;
 import io.camunda.client.jobhandling.DefaultCommandExceptionHandlingStrategy;
 import io.camunda.client.metrics.MetricsRecorder;
+import org.camunda.community.benchmarks.metrics.CommandLatencyRecorder;
 
 import java.time.Instant;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * Copied from CommandWrapper from spring-zeebe. Refactor over there to be able to use built-in stuff directly
@@ -19,6 +21,14 @@ public class RefactoredCommandWrapper extends CommandWrapper {
         private final long deadline;
         private final String entityLogInfo;
         private final DefaultCommandExceptionHandlingStrategy commandExceptionHandlingStrategy;
+        private final MetricsRecorder metricsRecorder;
+        private final MetricsRecorder.CounterMetricsContext metricsContext;
+        private BiConsumer<MetricsRecorder, MetricsRecorder.CounterMetricsContext> metricsFunction;
+        private CommandCompletionListener completionListener;
+        private CommandLatencyRecorder latencyRecorder;
+        private String operation;
+        // the failed attempt the exception handling strategy currently decides on, see scheduleExecutionUsing()
+        private volatile Attempt failedAttempt;
         private long currentRetryDelay = 50L;
         private int invocationCounter = 0;
         private final int maxRetries = 20;
@@ -29,21 +39,75 @@ public class RefactoredCommandWrapper extends CommandWrapper {
             this.deadline = deadline;
             this.entityLogInfo = entityLogInfo;
             this.commandExceptionHandlingStrategy = commandExceptionHandlingStrategy;
+            this.metricsRecorder = metricsRecorder;
+            this.metricsContext = metricsContext;
+        }
+
+        /**
+         * Registers a listener that is notified once the command has finally completed, i.e. succeeded, or failed
+         * without the exception handling strategy scheduling another retry.
+         */
+        public RefactoredCommandWrapper withCompletionListener(CommandCompletionListener completionListener) {
+            this.completionListener = completionListener;
+            return this;
+        }
+
+        /**
+         * Records the round-trip latency of every attempt of this command as the given operation.
+         */
+        public RefactoredCommandWrapper withLatencyRecorder(CommandLatencyRecorder latencyRecorder, String operation) {
+            this.latencyRecorder = latencyRecorder;
+            this.operation = operation;
+            return this;
+        }
+
+        public void executeAsyncWithMetrics(BiConsumer<MetricsRecorder, MetricsRecorder.CounterMetricsContext> metricsFunction) {
+            // not delegating to super, as its send() would bypass executeAsync() and thus the completion tracking
+            this.metricsFunction = metricsFunction;
+            executeAsync();
         }
 
         public void executeAsync() {
             ++this.invocationCounter;
-            this.command.send().exceptionally((t) -> {
-                this.commandExceptionHandlingStrategy.handleCommandError(this, t);
-                return null;
+            long sentNanos = System.nanoTime();
+            this.command.send().whenComplete((result, t) -> {
+                long latencyNanos = System.nanoTime() - sentNanos;
+                if (this.latencyRecorder != null) {
+                    this.latencyRecorder.record(this.operation, t, latencyNanos);
+                }
+                if (t == null) {
+                    if (this.metricsFunction != null) {
+                        this.metricsFunction.accept(this.metricsRecorder, this.metricsContext);
+                    }
+                    notifyCompletion(latencyNanos, null);
+                    return;
+                }
+                Attempt attempt = new Attempt();
+                this.failedAttempt = attempt;
+                try {
+                    this.commandExceptionHandlingStrategy.handleCommandError(this, t);
+                } finally {
+                    // only this attempt's decision counts, the retry may already have failed in turn
+                    if (!attempt.retryScheduled) {
+                        notifyCompletion(latencyNanos, t);
+                    }
+                }
             });
         }
 
+        private void notifyCompletion(long latencyNanos, Throwable error) {
+            if (this.completionListener != null) {
+                this.completionListener.onCompletion(latencyNanos, error);
+            }
+        }
+
         public void increaseBackoffUsing(BackoffSupplier backoffSupplier) {
             this.currentRetryDelay = backoffSupplier.supplyRetryDelay(this.currentRetryDelay);
         }
 
         public void scheduleExecutionUsing(ScheduledExecutorService scheduledExecutorService) {
+            // called by the strategy from within handleCommandError(), so before the retry can run
+            this.failedAttempt.retryScheduled = true;
             scheduledExecutorService.schedule(this::executeAsync, this.currentRetryDelay, TimeUnit.MILLISECONDS);
         }
 
@@ -63,4 +127,10 @@ public class RefactoredCommandWrapper extends CommandWrapper {
             return Instant.now().getEpochSecond() > this.deadline;
         }
 
+        private static final class Attempt {
+
+            // only accessed by the thread handling the failure of this attempt
+            private boolean retryScheduled;
+        }
+
 }
@@ -0,0 +1,59 @@
+package org.camunda.community.benchmarks.report;
+
+import org.HdrHistogram.Histogram;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything about a run in one document, see {@link BenchmarkReportGenerator}. All durations are in
+ * milliseconds, all times are ISO-8601 instants.
+ *
+ * @param timeline      the achieved rates per second, oldest first
+ * @param piExceptions  the count of failed PI starts by exception ({@code pi_exception})
+ * @param jobExceptions the count of failed job commands by exception ({@code jobs_exception})
+ * @param cycleTime     the exact PI cycle time over the whole run
+ * @param jobLatency    the {@code job_timer} of every job type
+ */
+public record BenchmarkReport(String starterId, String start, String end, long durationSeconds,
+                              List<Phase> phases, List<Second> timeline,
+                              Map<String, Long> piExceptions, Map<String, Long> jobExceptions,
+                              Percentiles cycleTime, Map<String, TimerSummary> jobLatency,
+                              BenchmarkConfiguration configuration) {
+
+    /**
+     * The warm-up ({@code benchmark.warmupPhaseDurationMillis}) or the measurement after it.
+     *
+     * @param backpressurePercent the PI starts rejected by backpressure, relative to the started PIs
+     */
+    public record Phase(String name, String start, String end, long seconds, double goalPiPerSecond,
+                        double startedPiPerSecond, double completedPiPerSecond, double backpressurePercent,
+                        double completedJobsPerSecond, Percentiles cycleTime) {
+    }
+
+    public record Second(long epochMillis, long goalPiPerSecond, double startedPiPerSecond,
+                         double completedPiPerSecond, double backpressurePerSecond, double completedJobsPerSecond) {
+    }
+
+    public record Percentiles(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+
+        static Percentiles of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new Percentiles(0, 0, 0, 0, 0, 0, 0);
+            }
+            return new Percentiles(histogram.getTotalCount(), histogram.getMean(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue());
+        }
+    }
+
+    /**
+     * A Micrometer timer: its count and mean since the start, its max and percentiles over its recent window.
+     *
+     * @param percentiles by quantile, e.g. {@code 0.99}
+     */
+    public record TimerSummary(long count, double mean, double max, Map<String, Double> percentiles) {
+    }
+}
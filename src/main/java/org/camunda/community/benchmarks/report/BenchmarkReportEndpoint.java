@@ -0,0 +1,41 @@
+package org.camunda.community.benchmarks.report;
+
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The benchmark report on demand: {@code GET /actuator/benchmarkreport} returns it as JSON,
+ * {@code POST /actuator/benchmarkreport} writes the JSON and HTML files to {@code benchmark.reportDirectory}
+ * (or the working directory) and returns their paths.
+ */
+@Component
+@Endpoint(id = "benchmarkreport")
+public class BenchmarkReportEndpoint {
+
+    private final BenchmarkReportGenerator generator;
+    private final BenchmarkConfiguration config;
+
+    public BenchmarkReportEndpoint(BenchmarkReportGenerator generator, BenchmarkConfiguration config) {
+        this.generator = generator;
+        this.config = config;
+    }
+
+    @ReadOperation(produces = "application/json")
+    public String report() {
+        return generator.toJson(generator.build());
+    }
+
+    @WriteOperation
+    public List<String> write() throws IOException {
+        String directory = config.getReportDirectory() != null && !config.getReportDirectory().isBlank()
+                ? config.getReportDirectory() : ".";
+        return generator.write(Path.of(directory)).stream().map(Path::toString).toList();
+    }
+}
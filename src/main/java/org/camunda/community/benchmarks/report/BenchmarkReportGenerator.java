@@ -0,0 +1,206 @@
+package org.camunda.community.benchmarks.report;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the {@link BenchmarkReport} of the run from the per-second snapshots of the {@link StatisticsCollector},
+ * and writes it as JSON plus a static HTML page: on shutdown to {@code benchmark.reportDirectory} (if set), and on
+ * demand via the {@code benchmarkreport} actuator endpoint.
+ * <p>
+ * The PI cycle times are recorded in an HdrHistogram per phase, so their percentiles are exact for the whole run,
+ * unlike the decaying Micrometer timers. The snapshots only cover the last {@code benchmark.statsSnapshotSeconds}.
+ */
+@Component
+public class BenchmarkReportGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BenchmarkReportGenerator.class);
+    static final String WARMUP = "warmup";
+    static final String MEASUREMENT = "measurement";
+
+    private final BenchmarkConfiguration config;
+    private final StatisticsCollector stats;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = objectMapper();
+    private final long startMillis = System.currentTimeMillis();
+
+    // in milliseconds
+    private final Recorder cycleTimes = new Recorder(3);
+    // guarded by this
+    private final Histogram warmupCycleTimes = new Histogram(3);
+    private final Histogram measurementCycleTimes = new Histogram(3);
+    private Histogram interval;
+
+    public BenchmarkReportGenerator(BenchmarkConfiguration config, StatisticsCollector stats, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.stats = stats;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        stats.addCycleTimeRecorder(cycleTimes);
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public synchronized void roll() {
+        interval = cycleTimes.getIntervalHistogram(interval);
+        (WARMUP.equals(phaseOf(System.currentTimeMillis())) ? warmupCycleTimes : measurementCycleTimes).add(interval);
+    }
+
+    String phaseOf(long epochMillis) {
+        return epochMillis < startMillis + config.getWarmupPhaseDurationMillis() ? WARMUP : MEASUREMENT;
+    }
+
+    public synchronized BenchmarkReport build() {
+        roll();
+        List<StatsSnapshot> snapshots = stats.getSnapshots();
+        long endMillis = System.currentTimeMillis();
+        Histogram allCycleTimes = warmupCycleTimes.copy();
+        allCycleTimes.add(measurementCycleTimes);
+        return new BenchmarkReport(config.getStarterId(), Instant.ofEpochMilli(startMillis).toString(),
+                Instant.ofEpochMilli(endMillis).toString(), (endMillis - startMillis) / 1000,
+                phases(snapshots), timeline(snapshots),
+                stats.getExceptionCounts("pi_exception"), stats.getExceptionCounts("jobs_exception"),
+                BenchmarkReport.Percentiles.of(allCycleTimes), jobLatency(), config);
+    }
+
+    private List<BenchmarkReport.Phase> phases(List<StatsSnapshot> snapshots) {
+        List<BenchmarkReport.Phase> phases = new ArrayList<>();
+        int from = 0;
+        while (from < snapshots.size()) {
+            String phase = phaseOf(snapshots.get(from).epochMillis());
+            int to = from;
+            while (to + 1 < snapshots.size() && phase.equals(phaseOf(snapshots.get(to + 1).epochMillis()))) {
+                to++;
+            }
+            // counted from the last snapshot before the phase, if there is one
+            StatsSnapshot first = snapshots.get(Math.max(0, from - 1));
+            StatsSnapshot last = snapshots.get(to);
+            double seconds = Math.max(1, last.epochMillis() - first.epochMillis()) / 1000.0;
+            double goal = 0;
+            for (int i = from; i <= to; i++) {
+                goal += snapshots.get(i).piPerSecondGoal();
+            }
+            long started = last.startedPi() - first.startedPi();
+            long backpressure = last.backpressure() - first.backpressure();
+            phases.add(new BenchmarkReport.Phase(phase, Instant.ofEpochMilli(snapshots.get(from).epochMillis()).toString(),
+                    Instant.ofEpochMilli(last.epochMillis()).toString(), Math.round(seconds), goal / (to - from + 1),
+                    started / seconds, (last.completedPi() - first.completedPi()) / seconds,
+                    started > 0 ? backpressure * 100.0 / started : 0,
+                    (last.completedJobs() - first.completedJobs()) / seconds,
+                    BenchmarkReport.Percentiles.of(WARMUP.equals(phase) ? warmupCycleTimes : measurementCycleTimes)));
+            from = to + 1;
+        }
+        return phases;
+    }
+
+    private static List<BenchmarkReport.Second> timeline(List<StatsSnapshot> snapshots) {
+        List<BenchmarkReport.Second> timeline = new ArrayList<>(snapshots.size());
+        for (int i = 1; i < snapshots.size(); i++) {
+            StatsSnapshot previous = snapshots.get(i - 1);
+            StatsSnapshot current = snapshots.get(i);
+            double seconds = Math.max(1, current.epochMillis() - previous.epochMillis()) / 1000.0;
+            timeline.add(new BenchmarkReport.Second(current.epochMillis(), current.piPerSecondGoal(),
+                    (current.startedPi() - previous.startedPi()) / seconds,
+                    (current.completedPi() - previous.completedPi()) / seconds,
+                    (current.backpressure() - previous.backpressure()) / seconds,
+                    (current.completedJobs() - previous.completedJobs()) / seconds));
+        }
+        return timeline;
+    }
+
+    private Map<String, BenchmarkReport.TimerSummary> jobLatency() {
+        Map<String, BenchmarkReport.TimerSummary> latency = new TreeMap<>();
+        for (Timer timer : meterRegistry.find("job_timer").timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put(String.valueOf(value.percentile()), value.value(TimeUnit.MILLISECONDS));
+            }
+            latency.put(timer.getId().getTag("type"), new BenchmarkReport.TimerSummary(snapshot.count(),
+                    snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS), percentiles));
+        }
+        return latency;
+    }
+
+    public String toJson(BenchmarkReport report) {
+        try {
+            return objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize the benchmark report", e);
+        }
+    }
+
+    /**
+     * Writes {@code benchmark-report-<starterId>.json} and {@code .html} to the directory.
+     *
+     * @return the written files
+     */
+    public List<Path> write(Path directory) throws IOException {
+        BenchmarkReport report = build();
+        Files.createDirectories(directory);
+        String name = "benchmark-report-" + config.getStarterId().replaceAll("[^A-Za-z0-9_.-]", "_");
+        Path json = directory.resolve(name + ".json");
+        Path html = directory.resolve(name + ".html");
+        Files.writeString(json, toJson(report));
+        Files.writeString(html, ReportHtml.render(report, objectMapper.writeValueAsString(report.configuration())));
+        LOG.info("Wrote benchmark report to {} and {}", json, html);
+        return List.of(json, html);
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (config.getReportDirectory() == null || config.getReportDirectory().isBlank()) {
+            return;
+        }
+        try {
+            write(Path.of(config.getReportDirectory()));
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not write the benchmark report to {}", config.getReportDirectory(), e);
+        }
+    }
+
+    private static ObjectMapper objectMapper() {
+        // the configuration holds resources and value types Jackson can't serialize as beans
+        SimpleModule module = new SimpleModule("benchmark-report");
+        module.addSerializer(Resource.class, ToStringSerializer.instance);
+        module.addSerializer(DataSize.class, ToStringSerializer.instance);
+        module.addSerializer(Duration.class, ToStringSerializer.instance);
+        return new ObjectMapper()
+                .registerModule(module)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+    }
+}
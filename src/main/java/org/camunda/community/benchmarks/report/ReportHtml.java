@@ -0,0 +1,172 @@
+package org.camunda.community.benchmarks.report;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Renders a {@link BenchmarkReport} as a single static HTML page without any external resources, so it can be
+ * archived and opened anywhere. The charts are inline SVG.
+ */
+final class ReportHtml {
+
+    private static final int CHART_WIDTH = 960;
+    private static final int CHART_HEIGHT = 240;
+    // more seconds are averaged into this many points
+    private static final int MAX_POINTS = 960;
+
+    private ReportHtml() {
+    }
+
+    static String render(BenchmarkReport report, String configurationJson) {
+        StringBuilder html = new StringBuilder(64 * 1024);
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Benchmark report ")
+                .append(escape(report.starterId())).append("</title>\n<style>")
+                .append("body{font-family:sans-serif;margin:2em;color:#222}table{border-collapse:collapse;margin-bottom:1.5em}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}th{background:#f0f0f0}")
+                .append("td:first-child,th:first-child{text-align:left}pre{background:#f7f7f7;padding:1em;overflow:auto}")
+                .append(".legend span{margin-right:1.5em}</style></head><body>\n");
+        html.append("<h1>Benchmark report ").append(escape(report.starterId())).append("</h1>\n<p>")
+                .append(escape(report.start())).append(" &ndash; ").append(escape(report.end()))
+                .append(" (").append(report.durationSeconds()).append(" s)</p>\n");
+
+        List<BenchmarkReport.Second> timeline = downsample(report.timeline());
+        html.append("<h2>PI/s: goal vs. achieved</h2>\n");
+        chart(html, timeline, new Series[]{
+                new Series("goal", "#999", s -> s.goalPiPerSecond()),
+                new Series("started", "#1f77b4", BenchmarkReport.Second::startedPiPerSecond),
+                new Series("completed", "#2ca02c", BenchmarkReport.Second::completedPiPerSecond),
+                new Series("backpressure", "#d62728", BenchmarkReport.Second::backpressurePerSecond)});
+        html.append("<h2>Backpressure (% of started PIs)</h2>\n");
+        chart(html, timeline, new Series[]{new Series("backpressure %", "#d62728",
+                s -> s.startedPiPerSecond() > 0 ? s.backpressurePerSecond() * 100 / s.startedPiPerSecond() : 0)});
+
+        html.append("<h2>Phases</h2>\n<table><tr><th>Phase</th><th>Start</th><th>End</th><th>Seconds</th>")
+                .append("<th>Goal PI/s</th><th>Started PI/s</th><th>Completed PI/s</th><th>Backpressure %</th>")
+                .append("<th>Jobs/s</th><th>Cycle time p50</th><th>p99</th><th>p99.9</th><th>max (ms)</th></tr>\n");
+        for (BenchmarkReport.Phase phase : report.phases()) {
+            html.append("<tr><td>").append(escape(phase.name())).append("</td><td>").append(escape(phase.start()))
+                    .append("</td><td>").append(escape(phase.end())).append("</td><td>").append(phase.seconds())
+                    .append("</td><td>").append(format(phase.goalPiPerSecond()))
+                    .append("</td><td>").append(format(phase.startedPiPerSecond()))
+                    .append("</td><td>").append(format(phase.completedPiPerSecond()))
+                    .append("</td><td>").append(format(phase.backpressurePercent()))
+                    .append("</td><td>").append(format(phase.completedJobsPerSecond()))
+                    .append("</td><td>").append(phase.cycleTime().p50())
+                    .append("</td><td>").append(phase.cycleTime().p99())
+                    .append("</td><td>").append(phase.cycleTime().p999())
+                    .append("</td><td>").append(phase.cycleTime().max()).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+
+        BenchmarkReport.Percentiles cycleTime = report.cycleTime();
+        html.append("<h2>PI cycle time (ms, whole run)</h2>\n<table><tr><th>Count</th><th>Mean</th><th>p50</th>")
+                .append("<th>p90</th><th>p99</th><th>p99.9</th><th>max</th></tr>\n<tr><td>").append(cycleTime.count())
+                .append("</td><td>").append(format(cycleTime.mean())).append("</td><td>").append(cycleTime.p50())
+                .append("</td><td>").append(cycleTime.p90()).append("</td><td>").append(cycleTime.p99())
+                .append("</td><td>").append(cycleTime.p999()).append("</td><td>").append(cycleTime.max())
+                .append("</td></tr>\n</table>\n");
+
+        html.append("<h2>Job latency (ms, job_timer)</h2>\n<table><tr><th>Job type</th><th>Count</th><th>Mean</th>")
+                .append("<th>Max (recent)</th><th>Percentiles (recent)</th></tr>\n");
+        for (Map.Entry<String, BenchmarkReport.TimerSummary> entry : report.jobLatency().entrySet()) {
+            BenchmarkReport.TimerSummary timer = entry.getValue();
+            html.append("<tr><td>").append(escape(entry.getKey())).append("</td><td>").append(timer.count())
+                    .append("</td><td>").append(format(timer.mean())).append("</td><td>").append(format(timer.max()))
+                    .append("</td><td>");
+            timer.percentiles().forEach((quantile, value) ->
+                    html.append(escape(quantile)).append(": ").append(format(value)).append(' '));
+            html.append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+
+        exceptions(html, "PI start exceptions (pi_exception)", report.piExceptions());
+        exceptions(html, "Job exceptions (jobs_exception)", report.jobExceptions());
+
+        html.append("<h2>Configuration</h2>\n<pre>").append(escape(configurationJson)).append("</pre>\n</body></html>\n");
+        return html.toString();
+    }
+
+    private record Series(String name, String color, ToDoubleFunction<BenchmarkReport.Second> value) {
+    }
+
+    private static void chart(StringBuilder html, List<BenchmarkReport.Second> timeline, Series[] series) {
+        if (timeline.isEmpty()) {
+            html.append("<p>No data.</p>\n");
+            return;
+        }
+        double max = 1;
+        for (BenchmarkReport.Second second : timeline) {
+            for (Series s : series) {
+                max = Math.max(max, s.value().applyAsDouble(second));
+            }
+        }
+        html.append("<svg width=\"").append(CHART_WIDTH + 60).append("\" height=\"").append(CHART_HEIGHT + 20)
+                .append("\" xmlns=\"http://www.w3.org/2000/svg\"><g transform=\"translate(50,5)\">")
+                .append("<rect width=\"").append(CHART_WIDTH).append("\" height=\"").append(CHART_HEIGHT)
+                .append("\" fill=\"none\" stroke=\"#ccc\"/>")
+                .append("<text x=\"-5\" y=\"10\" font-size=\"11\" text-anchor=\"end\">").append(format(max)).append("</text>")
+                .append("<text x=\"-5\" y=\"").append(CHART_HEIGHT).append("\" font-size=\"11\" text-anchor=\"end\">0</text>");
+        double xStep = timeline.size() > 1 ? (double) CHART_WIDTH / (timeline.size() - 1) : 0;
+        for (Series s : series) {
+            html.append("<polyline fill=\"none\" stroke-width=\"1.5\" stroke=\"").append(s.color()).append("\" points=\"");
+            for (int i = 0; i < timeline.size(); i++) {
+                double y = CHART_HEIGHT - s.value().applyAsDouble(timeline.get(i)) / max * CHART_HEIGHT;
+                html.append(String.format(Locale.ROOT, "%.1f,%.1f ", i * xStep, y));
+            }
+            html.append("\"/>");
+        }
+        html.append("</g></svg>\n<div class=\"legend\">");
+        for (Series s : series) {
+            html.append("<span style=\"color:").append(s.color()).append("\">&#9632; ").append(escape(s.name())).append("</span>");
+        }
+        html.append("</div>\n");
+    }
+
+    private static List<BenchmarkReport.Second> downsample(List<BenchmarkReport.Second> timeline) {
+        if (timeline.size() <= MAX_POINTS) {
+            return timeline;
+        }
+        int bucket = (timeline.size() + MAX_POINTS - 1) / MAX_POINTS;
+        List<BenchmarkReport.Second> points = new ArrayList<>(MAX_POINTS);
+        for (int from = 0; from < timeline.size(); from += bucket) {
+            List<BenchmarkReport.Second> seconds = timeline.subList(from, Math.min(timeline.size(), from + bucket));
+            points.add(new BenchmarkReport.Second(seconds.get(0).epochMillis(),
+                    Math.round(average(seconds, s -> s.goalPiPerSecond())),
+                    average(seconds, BenchmarkReport.Second::startedPiPerSecond),
+                    average(seconds, BenchmarkReport.Second::completedPiPerSecond),
+                    average(seconds, BenchmarkReport.Second::backpressurePerSecond),
+                    average(seconds, BenchmarkReport.Second::completedJobsPerSecond)));
+        }
+        return points;
+    }
+
+    private static double average(List<BenchmarkReport.Second> seconds, ToDoubleFunction<BenchmarkReport.Second> value) {
+        return seconds.stream().mapToDouble(value).average().orElse(0);
+    }
+
+    private static void exceptions(StringBuilder html, String title, Map<String, Long> counts) {
+        html.append("<h2>").append(escape(title)).append("</h2>\n");
+        if (counts.isEmpty()) {
+            html.append("<p>None.</p>\n");
+            return;
+        }
+        html.append("<table><tr><th>Exception</th><th>Count</th></tr>\n");
+        counts.forEach((exception, count) -> html.append("<tr><td>").append(escape(exception)).append("</td><td>")
+                .append(count).append("</td></tr>\n"));
+        html.append("</table>\n");
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%,.1f", value);
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,40 @@
+package org.camunda.community.benchmarks.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The last {@code capacity} snapshots, the oldest are overwritten. Written once a second and read for reports
+ * only, so plain synchronization is enough.
+ */
+public class SnapshotRing {
+
+    private final StatsSnapshot[] snapshots;
+    private int next;
+    private int size;
+
+    public SnapshotRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The snapshot capacity must be > 0, but is " + capacity);
+        }
+        this.snapshots = new StatsSnapshot[capacity];
+    }
+
+    public synchronized void add(StatsSnapshot snapshot) {
+        snapshots[next] = snapshot;
+        next = (next + 1) % snapshots.length;
+        size = Math.min(size + 1, snapshots.length);
+    }
+
+    /**
+     * @return the snapshots in the ring, oldest first
+     */
+    public synchronized List<StatsSnapshot> toList() {
+        List<StatsSnapshot> list = new ArrayList<>(size);
+        int first = (next - size + snapshots.length) % snapshots.length;
+        for (int i = 0; i < size; i++) {
+            list.add(snapshots[(first + i) % snapshots.length]);
+        }
+        return list;
+    }
+}
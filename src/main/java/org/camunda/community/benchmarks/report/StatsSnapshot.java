@@ -0,0 +1,10 @@
+package org.camunda.community.benchmarks.report;
+
+/**
+ * The counters of the {@code StatisticsCollector} at one point in time, all cumulative since the start.
+ *
+ * @param piPerSecondGoal the start rate the scheduler aimed for at that time
+ */
+public record StatsSnapshot(long epochMillis, long piPerSecondGoal, long startedPi, long completedPi,
+                            long backpressure, long completedJobs) {
+}
@@ -0,0 +1,212 @@
+package org.camunda.community.benchmarks.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes one row per second to a local CSV or JSON lines file, for runs without Prometheus and for the short
+ * spikes a 15 second scrape interval averages away: the PIs started, completed and rejected by backpressure, the
+ * completed jobs (all within that second), the in-flight starts, the PI/s goal and the p50/p99 PI cycle time of
+ * that second.
+ * <p>
+ * The {@code StatisticsCollector} only hands the rows over via a bounded queue (dropping them if the writer
+ * can't keep up, rather than blocking). A dedicated thread formats them into a reused buffer, writes them
+ * buffered and flushes in batches, every {@code flushInterval}. Once the file reaches {@code maxBytes}, it's
+ * rolled over to {@code <file>.1}, {@code <file>.2}, ..., keeping {@code maxFiles} files in total.
+ */
+public class TimeSeriesWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimeSeriesWriter.class);
+    private static final int QUEUE_CAPACITY = 600;
+    static final String CSV_HEADER = "epoch_millis,goal_pi_per_second,pi_started,pi_completed,pi_backpressure,"
+            + "jobs_completed,pi_inflight_starts,pi_cycletime_p50_ms,pi_cycletime_p99_ms\n";
+
+    /**
+     * @param snapshot the counters at the end of the second
+     */
+    public record Row(StatsSnapshot snapshot, int inFlightStarts, long cycleTimeP50Millis, long cycleTimeP99Millis) {
+    }
+
+    private final Path file;
+    private final boolean jsonLines;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<Row> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+
+    // only used by the writer thread
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+    private Writer out;
+    private long bytes;
+    private StatsSnapshot previous;
+    private volatile Thread thread;
+
+    /**
+     * @param format {@code csv} or {@code jsonl}
+     */
+    public TimeSeriesWriter(Path file, String format, long maxBytes, int maxFiles, long flushIntervalMillis) {
+        this.jsonLines = switch (format) {
+            case "csv" -> false;
+            case "jsonl" -> true;
+            default -> throw new IllegalArgumentException("Time series format must be 'csv' or 'jsonl', but is '" + format + "'");
+        };
+        if (maxFiles < 1) {
+            throw new IllegalArgumentException("Time series max files must be >= 1, but is " + maxFiles);
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+    }
+
+    public void start() {
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write the time series to " + file, e);
+        }
+        LOG.info("Writing per-second time series to {}", file);
+        thread = Thread.ofPlatform().name("time-series-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Hands the row over to the writer thread, never blocks.
+     */
+    public void offer(Row row) {
+        if (!queue.offer(row) && dropped.incrementAndGet() % 60 == 1) {
+            LOG.warn("Time series writer can't keep up, dropped {} rows so far", dropped.get());
+        }
+    }
+
+    private void run() {
+        long lastFlush = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long untilFlush = flushIntervalNanos - (System.nanoTime() - lastFlush);
+                Row row = queue.poll(Math.max(0, untilFlush), TimeUnit.NANOSECONDS);
+                if (row != null) {
+                    write(row);
+                }
+                if (System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                    out.flush();
+                    lastFlush = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped, the remaining rows are written by stop()
+        } catch (IOException e) {
+            LOG.error("Writing the time series to {} failed, stopped writing it", file, e);
+        }
+    }
+
+    public void stop() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        try {
+            Row row;
+            while ((row = queue.poll()) != null) {
+                write(row);
+            }
+            close();
+        } catch (IOException e) {
+            LOG.warn("Could not write the last rows of the time series to {}", file, e);
+        }
+    }
+
+    void open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        // appends to the file of a previous run, if there is one
+        bytes = Files.exists(file) ? Files.size(file) : 0;
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (bytes == 0 && !jsonLines) {
+            out.write(CSV_HEADER);
+            bytes = CSV_HEADER.length();
+        }
+    }
+
+    void close() throws IOException {
+        out.close();
+    }
+
+    void write(Row row) throws IOException {
+        format(row);
+        if (bytes + line.length() > maxBytes && bytes > CSV_HEADER.length()) {
+            roll();
+        }
+        if (chars.length < line.length()) {
+            chars = new char[line.length() * 2];
+        }
+        line.getChars(0, line.length(), chars, 0);
+        out.write(chars, 0, line.length());
+        bytes += line.length();
+    }
+
+    private void format(Row row) {
+        StatsSnapshot current = row.snapshot();
+        StatsSnapshot before = previous != null ? previous : new StatsSnapshot(0, 0, 0, 0, 0, 0);
+        previous = current;
+        line.setLength(0);
+        if (jsonLines) {
+            line.append("{\"epoch_millis\":").append(current.epochMillis())
+                    .append(",\"goal_pi_per_second\":").append(current.piPerSecondGoal())
+                    .append(",\"pi_started\":").append(current.startedPi() - before.startedPi())
+                    .append(",\"pi_completed\":").append(current.completedPi() - before.completedPi())
+                    .append(",\"pi_backpressure\":").append(current.backpressure() - before.backpressure())
+                    .append(",\"jobs_completed\":").append(current.completedJobs() - before.completedJobs())
+                    .append(",\"pi_inflight_starts\":").append(row.inFlightStarts())
+                    .append(",\"pi_cycletime_p50_ms\":").append(row.cycleTimeP50Millis())
+                    .append(",\"pi_cycletime_p99_ms\":").append(row.cycleTimeP99Millis())
+                    .append("}\n");
+        } else {
+            line.append(current.epochMillis())
+                    .append(',').append(current.piPerSecondGoal())
+                    .append(',').append(current.startedPi() - before.startedPi())
+                    .append(',').append(current.completedPi() - before.completedPi())
+                    .append(',').append(current.backpressure() - before.backpressure())
+                    .append(',').append(current.completedJobs() - before.completedJobs())
+                    .append(',').append(row.inFlightStarts())
+                    .append(',').append(row.cycleTimeP50Millis())
+                    .append(',').append(row.cycleTimeP99Millis())
+                    .append('\n');
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        if (maxFiles == 1) {
+            Files.delete(file);
+        } else {
+            Files.deleteIfExists(rolled(maxFiles - 1));
+            for (int i = maxFiles - 2; i >= 1; i--) {
+                if (Files.exists(rolled(i))) {
+                    Files.move(rolled(i), rolled(i + 1));
+                }
+            }
+            Files.move(file, rolled(1));
+        }
+        open();
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -27,25 +27,37 @@ public class BenchmarkStartPiExceptionHandlingStrategy extends DefaultCommandExc
     }
 
     public void handleCommandError(CommandWrapper command, Throwable throwable) {
+        if (countException(throwable)) {
+            return; // ignore backpressure, as we don't want to add a big wave of retries
+        }
+        
+        // use normal behavior
+        super.handleCommandError(command, throwable);
+    }
+
+    /**
+     * Counts (and logs) a failed PI start, without retrying it.
+     *
+     * @return whether the start was rejected by backpressure
+     */
+    public boolean countException(Throwable throwable) {
         StatusRuntimeException statusRuntimeException = null;
-        if (StatusRuntimeException.class.isAssignableFrom(throwable.getClass())) {
-            statusRuntimeException = (StatusRuntimeException) throwable;
-        } else if (StatusRuntimeException.class.isAssignableFrom(throwable.getCause().getClass())) {
-            statusRuntimeException = (StatusRuntimeException) throwable.getCause();
+        if (throwable instanceof StatusRuntimeException exception) {
+            statusRuntimeException = exception;
+        } else if (throwable.getCause() instanceof StatusRuntimeException exception) {
+            statusRuntimeException = exception;
         }
         if (statusRuntimeException != null) {            
             logException(throwable, stats.incStartedProcessInstancesException(statusRuntimeException.getStatus().getCode().name()));
             
             if (Status.Code.RESOURCE_EXHAUSTED == statusRuntimeException.getStatus().getCode()) {
                 stats.incStartedProcessInstancesBackpressure();
-                return; // ignore backpressure, as we don't want to add a big wave of retries
+                return true;
             }
         } else {
             logException(throwable, stats.incStartedProcessInstancesException(throwable.getMessage()));
         }
-        
-        // use normal behavior
-        super.handleCommandError(command, throwable);
+        return false;
     }
     
     /**
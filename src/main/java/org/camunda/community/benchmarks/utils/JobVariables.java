@@ -0,0 +1,108 @@
+package org.camunda.community.benchmarks.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.camunda.community.benchmarks.StartPiExecutor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The few variables the job workers use, read from a job's variables document in a single pass of a
+ * streaming parser. All other variables (e.g. the benchmark payload, if the broker sent it anyway) are
+ * skipped without building any objects for them, so handling a job costs the same for any payload size.
+ *
+ * @param delay                   {@code delay}, overriding {@code benchmark.taskCompletionDelay}, or {@code null}
+ * @param startDateMillis         {@code benchmark_start_date_millis}, or {@code null}
+ * @param intendedStartDateMillis {@code benchmark_intended_start_date_millis}, or {@code null}
+ * @param previousJobType          {@value #PREVIOUS_JOB_TYPE}, the type of the job completed before in the PI, or {@code null}
+ * @param previousCompletionMillis {@value #PREVIOUS_JOB_COMPLETED_MILLIS}, when that job was completed, or {@code null}
+ */
+public record JobVariables(Long delay, Long startDateMillis, Long intendedStartDateMillis,
+                           String previousJobType, Long previousCompletionMillis) {
+
+    public static final String DELAY = "delay";
+    // written by the workers on completion with benchmark.measureHopLatency
+    public static final String PREVIOUS_JOB_TYPE = "benchmark_prev_job";
+    public static final String PREVIOUS_JOB_COMPLETED_MILLIS = "benchmark_prev_job_completed";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * What a worker needs to fetch, see {@code JobWorkerBuilderStep3.fetchVariables(...)}.
+     */
+    public static List<String> fetchVariables(boolean markProcessInstanceCompleted) {
+        return fetchVariables(markProcessInstanceCompleted, false);
+    }
+
+    public static List<String> fetchVariables(boolean markProcessInstanceCompleted, boolean hopLatency) {
+        List<String> names = new ArrayList<>(5);
+        names.add(DELAY);
+        if (markProcessInstanceCompleted) {
+            names.add(StartPiExecutor.BENCHMARK_START_DATE_MILLIS);
+            names.add(StartPiExecutor.BENCHMARK_INTENDED_START_DATE_MILLIS);
+        }
+        if (hopLatency) {
+            names.add(PREVIOUS_JOB_TYPE);
+            names.add(PREVIOUS_JOB_COMPLETED_MILLIS);
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * @return the start of the variables a job of the given type is completed with for measuring the hop latency,
+     * to be followed by the completion time (in millis) and {@code '}'} or {@code ','} and more variables
+     */
+    public static String hopVariablesPrefix(String jobType) {
+        return "{\"" + PREVIOUS_JOB_TYPE + "\":\"" + jobType.replace("\\", "\\\\").replace("\"", "\\\"")
+                + "\",\"" + PREVIOUS_JOB_COMPLETED_MILLIS + "\":";
+    }
+
+    public static JobVariables parse(String variablesJson) {
+        if (variablesJson == null || variablesJson.isBlank()) {
+            return new JobVariables(null, null, null, null, null);
+        }
+        Long delay = null;
+        Long startDateMillis = null;
+        Long intendedStartDateMillis = null;
+        String previousJobType = null;
+        Long previousCompletionMillis = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(variablesJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Job variables must be a JSON object, but were: " + variablesJson);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (DELAY.equals(name)) {
+                    delay = longValue(parser, value);
+                } else if (StartPiExecutor.BENCHMARK_START_DATE_MILLIS.equals(name)) {
+                    startDateMillis = longValue(parser, value);
+                } else if (StartPiExecutor.BENCHMARK_INTENDED_START_DATE_MILLIS.equals(name)) {
+                    intendedStartDateMillis = longValue(parser, value);
+                } else if (PREVIOUS_JOB_TYPE.equals(name)) {
+                    previousJobType = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    parser.skipChildren();
+                } else if (PREVIOUS_JOB_COMPLETED_MILLIS.equals(name)) {
+                    previousCompletionMillis = longValue(parser, value);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read job variables", e);
+        }
+        return new JobVariables(delay, startDateMillis, intendedStartDateMillis, previousJobType, previousCompletionMillis);
+    }
+
+    private static Long longValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getValueAsLong();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
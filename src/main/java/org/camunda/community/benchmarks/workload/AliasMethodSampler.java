@@ -0,0 +1,81 @@
+package org.camunda.community.benchmarks.workload;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks one of several values at random, proportionally to their weights, in constant time per sample
+ * (Vose's alias method), so the start path doesn't get slower with the number of processes in the mix.
+ * <p>
+ * The weights are split into equally likely columns of probability 1, each holding at most two values: its
+ * own one, and an "alias" that fills the rest of the column. Sampling then is one uniformly random column
+ * and one biased coin flip between the two values in it. The table is built once and never changes, so
+ * the sampler is thread-safe.
+ */
+public class AliasMethodSampler<T> {
+
+    private final List<T> values;
+    // chance to keep the column's own value rather than taking its alias
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param weights relative weight by value, all must be non-negative and at least one positive
+     */
+    public AliasMethodSampler(Map<T, Double> weights) {
+        this.values = new ArrayList<>(weights.keySet());
+        int n = values.size();
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        double total = 0;
+        for (double weight : weights.values()) {
+            if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight + " in " + weights);
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive: " + weights);
+        }
+
+        // scaled so the average column is exactly 1
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights.get(values.get(i)) * n / total;
+            (scaled[i] < 1 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            // the large value gives away what it filled into the small column
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            (scaled[more] < 1 ? small : large).push(more);
+        }
+        // whatever is left is 1 up to rounding errors
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1;
+        }
+    }
+
+    public T sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int column = random.nextInt(values.size());
+        return random.nextDouble() < probability[column] ? values.get(column) : values.get(alias[column]);
+    }
+
+    public List<T> getValues() {
+        return values;
+    }
+}
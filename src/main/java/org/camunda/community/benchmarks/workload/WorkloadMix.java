@@ -0,0 +1,57 @@
+package org.camunda.community.benchmarks.workload;
+
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.config.WorkloadMixEntry;
+import org.springframework.core.io.Resource;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Derives what to start and deploy from {@code benchmark.workloadMix}. Without a mix, the benchmark
+ * behaves as a mix of only {@code benchmark.bpmnProcessId}.
+ */
+public final class WorkloadMix {
+
+    private WorkloadMix() {
+    }
+
+    public static boolean isConfigured(BenchmarkConfiguration config) {
+        return config.getWorkloadMix() != null && !config.getWorkloadMix().isEmpty();
+    }
+
+    /**
+     * @return the weight of every process to start, by BPMN process ID, in configuration order
+     */
+    public static Map<String, Double> weights(BenchmarkConfiguration config) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        if (isConfigured(config)) {
+            config.getWorkloadMix().forEach((processId, entry) -> weights.put(processId, entry.getWeight()));
+        } else {
+            weights.put(config.getBpmnProcessId(), 1.0);
+        }
+        return weights;
+    }
+
+    /**
+     * @return {@code benchmark.bpmnResource} plus the resources of all processes of the mix, without
+     * duplicates (empty if there are none)
+     */
+    public static Resource[] bpmnResources(BenchmarkConfiguration config) {
+        Set<Resource> resources = new LinkedHashSet<>();
+        if (config.getBpmnResource() != null) {
+            resources.addAll(Arrays.asList(config.getBpmnResource()));
+        }
+        if (isConfigured(config)) {
+            for (WorkloadMixEntry entry : config.getWorkloadMix().values()) {
+                if (entry.getBpmnResource() != null) {
+                    resources.addAll(Arrays.asList(entry.getBpmnResource()));
+                }
+            }
+        }
+        return resources.toArray(new Resource[0]);
+    }
+}
@@ -17,7 +17,10 @@ package org.camunda.community.benchmarks;
 
 import io.camunda.client.CamundaClient;
 import io.camunda.client.metrics.MicrometerMetricsRecorder;
+import org.camunda.community.benchmarks.completion.CompletionScheduler;
+import org.camunda.community.benchmarks.completion.FaultInjection;
 import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.config.JobTypeSettings;
 import org.camunda.community.benchmarks.strategy.BenchmarkCompleteJobExceptionHandlingStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,9 +29,9 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.scheduling.TaskScheduler;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,7 +50,7 @@ class JobWorkerTest {
     private StatisticsCollector stats;
 
     @Mock
-    private TaskScheduler scheduler;
+    private CompletionScheduler scheduler;
 
     @Mock
     private BenchmarkCompleteJobExceptionHandlingStrategy exceptionHandlingStrategy;
@@ -326,4 +329,59 @@ class JobWorkerTest {
         
         assertEquals("benchmark-task-1:completed", registeredJobTypes.get(0));
     }
+
+    @Test
+    void testSettingsFor_MergesJobTypeSettingsWithDefault() {
+        // Given
+        JobTypeSettings defaults = new JobTypeSettings();
+        defaults.setMaxJobsActive(100);
+        defaults.setFailureRate(0.01);
+        JobTypeSettings slowTask = new JobTypeSettings();
+        slowTask.setMaxJobsActive(10);
+        slowTask.setTimeout(Duration.ofMinutes(5));
+        config.getJobTypeSettings().put(JobTypeSettings.DEFAULT_KEY, defaults);
+        config.getJobTypeSettings().put("slow-task", slowTask);
+
+        // When
+        JobTypeSettings slow = jobWorker.settingsFor("slow-task");
+        JobTypeSettings other = jobWorker.settingsFor("fast-task");
+
+        // Then
+        assertEquals(10, slow.getMaxJobsActive());
+        assertEquals(Duration.ofMinutes(5), slow.getTimeout());
+        assertEquals(0.01, slow.getFailureRate(), 0);
+        assertEquals(100, other.getMaxJobsActive());
+        assertNull(other.getTimeout());
+    }
+
+    @Test
+    void testSettingsFor_ExplicitZeroFailureRate_OverridesDefault() {
+        // Given
+        JobTypeSettings defaults = new JobTypeSettings();
+        defaults.setFailureRate(0.01);
+        JobTypeSettings reliableTask = new JobTypeSettings();
+        reliableTask.setFailureRate(0.0);
+        config.getJobTypeSettings().put(JobTypeSettings.DEFAULT_KEY, defaults);
+        config.getJobTypeSettings().put("reliable-task", reliableTask);
+
+        // When
+        JobTypeSettings reliable = jobWorker.settingsFor("reliable-task");
+
+        // Then
+        assertEquals(0.0, reliable.getFailureRate(), 0);
+        assertFalse(new FaultInjection(reliable).isEnabled());
+    }
+
+    @Test
+    void testSettingsFor_WithPartitionPinning_ShouldIgnoreStarterIdPrefix() {
+        // Given
+        config.setEnablePartitionPinning(true);
+        JobTypeSettings settings = new JobTypeSettings();
+        settings.setStreamEnabled(false);
+        config.getJobTypeSettings().put("benchmark-task-1", settings);
+
+        // When / Then
+        assertEquals(false, jobWorker.settingsFor("starter1-benchmark-task-1").getStreamEnabled());
+        assertNull(jobWorker.settingsFor("starter1-benchmark-task-2").getStreamEnabled());
+    }
 }
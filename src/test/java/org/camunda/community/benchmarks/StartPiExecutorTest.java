@@ -0,0 +1,201 @@
+package org.camunda.community.benchmarks;
+
+import io.camunda.client.CamundaClient;
+import io.camunda.client.CamundaClientConfiguration;
+import io.camunda.client.api.CamundaFuture;
+import io.camunda.client.api.command.CreateProcessInstanceCommandStep1;
+import io.camunda.client.api.command.CreateProcessInstanceWithResultCommandStep1;
+import io.camunda.client.api.command.FinalCommandStep;
+import io.camunda.client.api.response.ProcessInstanceEvent;
+import io.camunda.client.api.response.ProcessInstanceResult;
+import io.camunda.client.impl.CamundaObjectMapper;
+import io.camunda.client.metrics.MicrometerMetricsRecorder;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.flowcontrol.InFlightStartLimiter;
+import org.camunda.community.benchmarks.metrics.CommandLatencyRecorder;
+import org.camunda.community.benchmarks.strategy.BenchmarkStartPiExceptionHandlingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StartPiExecutorTest {
+
+    private final BenchmarkConfiguration config = new BenchmarkConfiguration();
+    private final StatisticsCollector stats = mock(StatisticsCollector.class);
+    private final InFlightStartLimiter inFlightLimiter = mock(InFlightStartLimiter.class);
+    private final CommandLatencyRecorder latencyRecorder = mock(CommandLatencyRecorder.class);
+    private final BenchmarkStartPiExceptionHandlingStrategy exceptionHandlingStrategy =
+            mock(BenchmarkStartPiExceptionHandlingStrategy.class);
+
+    private final List<TestFuture<ProcessInstanceResult>> withResultStarts = new ArrayList<>();
+    private int plainStarts;
+
+    private CreateProcessInstanceWithResultCommandStep1 withResultCommand;
+    private StartPiExecutor executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        config.setPayloadPath(new ClassPathResource("bpmn/typical_payload.json"));
+        config.setStarterId("starter1");
+
+        CamundaClient client = mock(CamundaClient.class);
+        CreateProcessInstanceCommandStep1 step1 = mock(CreateProcessInstanceCommandStep1.class);
+        CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep2 step2 =
+                mock(CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep2.class);
+        CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3 step3 =
+                mock(CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3.class);
+        withResultCommand = mock(CreateProcessInstanceWithResultCommandStep1.class);
+        FinalCommandStep<ProcessInstanceResult> withTimeout = mock(FinalCommandStep.class);
+        when(client.newCreateInstanceCommand()).thenReturn(step1);
+        when(step1.bpmnProcessId(anyString())).thenReturn(step2);
+        when(step2.latestVersion()).thenReturn(step3);
+        when(step3.variables(any(Object.class))).thenReturn(step3);
+        when(step3.send()).thenAnswer(invocation -> {
+            plainStarts++;
+            return new TestFuture<ProcessInstanceEvent>();
+        });
+        when(step3.withResult()).thenReturn(withResultCommand);
+        when(withResultCommand.fetchVariables(any(String[].class))).thenReturn(withResultCommand);
+        when(withResultCommand.requestTimeout(any(Duration.class))).thenReturn(withTimeout);
+        when(withTimeout.send()).thenAnswer(invocation -> {
+            TestFuture<ProcessInstanceResult> future = new TestFuture<>();
+            withResultStarts.add(future);
+            return future;
+        });
+        when(inFlightLimiter.acquire()).thenReturn(true);
+        CamundaClientConfiguration clientConfiguration = mock(CamundaClientConfiguration.class);
+        when(clientConfiguration.getJsonMapper()).thenReturn(new CamundaObjectMapper());
+
+        executor = new StartPiExecutor();
+        setField("config", config);
+        setField("client", client);
+        setField("exceptionHandlingStrategy", exceptionHandlingStrategy);
+        setField("zeebeClientConfiguration", clientConfiguration);
+        setField("micrometerMetricsRecorder", mock(MicrometerMetricsRecorder.class));
+        setField("meterRegistry", new SimpleMeterRegistry());
+        setField("inFlightLimiter", inFlightLimiter);
+        setField("stats", stats);
+        setField("latencyRecorder", latencyRecorder);
+    }
+
+    private void setField(String fieldName, Object value) throws Exception {
+        Field field = StartPiExecutor.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(executor, value);
+    }
+
+    private void start(int count) {
+        for (int i = 0; i < count; i++) {
+            executor.startInstance(System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void startsTheConfiguredRatioWithResult() throws Exception {
+        config.setStartWithResultRatio(0.25);
+        config.setMaxInFlightStartsWithResult(10_000);
+        executor.init();
+
+        start(4000);
+
+        // 1000 expected, the standard deviation is about 27
+        assertTrue(withResultStarts.size() > 850 && withResultStarts.size() < 1150, "with result: " + withResultStarts.size());
+        assertEquals(4000, withResultStarts.size() + plainStarts);
+    }
+
+    @Test
+    void startsNormallyWhileTheWithResultCapIsReached() throws Exception {
+        config.setStartWithResultRatio(1);
+        config.setMaxInFlightStartsWithResult(3);
+        executor.init();
+
+        start(10);
+
+        assertEquals(3, withResultStarts.size());
+        assertEquals(7, plainStarts);
+
+        withResultStarts.get(0).complete(mock(ProcessInstanceResult.class));
+        start(1);
+
+        assertEquals(4, withResultStarts.size());
+    }
+
+    @Test
+    void recordsTheLatencyOfAResult() throws Exception {
+        config.setStartWithResultRatio(1);
+        executor.init();
+        start(1);
+
+        withResultStarts.get(0).complete(mock(ProcessInstanceResult.class));
+
+        verify(stats).recordProcessInstanceResult(anyLong());
+        verify(latencyRecorder).record(eq("CreateProcessInstanceWithResult"), isNull(), anyLong());
+        verify(exceptionHandlingStrategy, never()).countException(any());
+    }
+
+    @Test
+    void failure_isCountedAndNotRetried() throws Exception {
+        config.setStartWithResultRatio(1);
+        config.setMaxInFlightStartsWithResult(1);
+        executor.init();
+        start(1);
+        RuntimeException timeout = Status.DEADLINE_EXCEEDED.asRuntimeException();
+
+        withResultStarts.get(0).completeExceptionally(timeout);
+
+        assertEquals(1, withResultStarts.size());
+        verify(withResultCommand, times(1)).requestTimeout(any(Duration.class));
+        verify(exceptionHandlingStrategy).countException(same(timeout));
+        verify(latencyRecorder).record(eq("CreateProcessInstanceWithResult"), same(timeout), anyLong());
+        verify(stats, never()).recordProcessInstanceResult(anyLong());
+        // the permit was released
+        start(1);
+        assertEquals(2, withResultStarts.size());
+    }
+
+    @Test
+    void startRejectedByTheInFlightLimit_isNotCounted() throws Exception {
+        executor.init();
+        when(inFlightLimiter.acquire()).thenReturn(true, false);
+
+        assertTrue(executor.startInstance(System.currentTimeMillis()));
+        assertFalse(executor.startInstance(System.currentTimeMillis()));
+
+        assertEquals(1, plainStarts);
+        verify(stats, times(1)).incStartedProcessInstances();
+        verify(stats, times(1)).incStartedProcessInstancesOf(config.getBpmnProcessId());
+    }
+
+    static class TestFuture<T> extends CompletableFuture<T> implements CamundaFuture<T> {
+
+        @Override
+        public T join(long timeout, TimeUnit unit) {
+            return orTimeout(timeout, unit).join();
+        }
+    }
+}
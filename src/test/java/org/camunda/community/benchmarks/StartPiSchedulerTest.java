@@ -0,0 +1,29 @@
+package org.camunda.community.benchmarks;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StartPiSchedulerTest {
+
+    private final StartPiExecutor executor = mock(StartPiExecutor.class);
+    private final StartPiScheduler scheduler = new StartPiScheduler();
+
+    @Test
+    void batch_stopsAtTheFirstStartNotSent() throws Exception {
+        Field field = StartPiScheduler.class.getDeclaredField("executor");
+        field.setAccessible(true);
+        field.set(scheduler, executor);
+        when(executor.startInstance(anyLong())).thenReturn(true, true, false);
+
+        scheduler.startInstances(10, System.currentTimeMillis(), 1.0);
+
+        verify(executor, times(3)).startInstance(anyLong());
+    }
+}
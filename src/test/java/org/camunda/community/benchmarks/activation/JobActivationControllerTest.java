@@ -0,0 +1,62 @@
+package org.camunda.community.benchmarks.activation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JobActivationControllerTest {
+
+    private final JobActivationController controller = new JobActivationController(10, 1000, 100, 0.01);
+
+    @Test
+    void increasesHealthyBusyWorker() {
+        assertEquals(125, controller.next(100, 500, 20, 500, 0, 0));
+        // at least one more
+        assertEquals(4, new JobActivationController(1, 1000, 100, 0.01).next(3, 5, 20, 5, 0, 0));
+    }
+
+    @Test
+    void keepsIdleWorker() {
+        assertEquals(100, controller.next(100, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    void decreasesWhenJobsWaitTooLong() {
+        assertEquals(70, controller.next(100, 500, 101, 500, 0, 0));
+    }
+
+    @Test
+    void decreasesWhenCompletionsFail() {
+        assertEquals(70, controller.next(100, 500, 20, 490, 10, 0));
+        assertEquals(125, controller.next(100, 500, 20, 999, 1, 0));
+    }
+
+    @Test
+    void decreasesWhenCompletionsBackUp() {
+        assertEquals(70, controller.next(100, 500, 20, 500, 0, 250));
+    }
+
+    @Test
+    void completionBacklog_followsFromPendingAndAcknowledgedCommands() {
+        assertEquals(0, JobActivationController.completionBacklogMillis(0, 0, 30_000));
+        // 300 pending at 100 acknowledged per second
+        assertEquals(3000, JobActivationController.completionBacklogMillis(300, 3000, 30_000));
+        assertEquals(30_000, JobActivationController.completionBacklogMillis(5, 0, 30_000));
+        assertEquals(30_000, JobActivationController.completionBacklogMillis(1_000_000, 1, 30_000));
+    }
+
+    @Test
+    void staysWithinBounds() {
+        assertEquals(10, controller.next(12, 500, 500, 500, 0, 0));
+        assertEquals(1000, controller.next(900, 500, 20, 500, 0, 0));
+        assertEquals(10, controller.clamp(1));
+        assertEquals(1000, controller.clamp(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new JobActivationController(0, 10, 100, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new JobActivationController(20, 10, 100, 0.01));
+    }
+}
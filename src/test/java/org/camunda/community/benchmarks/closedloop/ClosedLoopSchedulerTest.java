@@ -0,0 +1,167 @@
+package org.camunda.community.benchmarks.closedloop;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.community.benchmarks.StartPiExecutor;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.strategy.BenchmarkStartPiExceptionHandlingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClosedLoopSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StartPiExecutor executor = mock(StartPiExecutor.class);
+    private final StatisticsCollector stats = mock(StatisticsCollector.class);
+    private final ProcessInstanceCompletionTracker tracker = new ProcessInstanceCompletionTracker();
+    private final BenchmarkStartPiExceptionHandlingStrategy exceptionHandlingStrategy =
+            mock(BenchmarkStartPiExceptionHandlingStrategy.class);
+    private ClosedLoopScheduler scheduler;
+
+    @AfterEach
+    void stop() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    private BenchmarkConfiguration config(String completion) {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setVirtualUsers(3);
+        config.setInitialVirtualUsers(1);
+        config.setVirtualUsersIncrement(1);
+        // the tests end the steps themselves
+        config.setVirtualUsersStepDurationMillis(TimeUnit.HOURS.toMillis(1));
+        config.setVirtualUserThinkTimeMillis(1);
+        config.setVirtualUserCompletion(completion);
+        return config;
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        assertTrue(latch.await(10, TimeUnit.SECONDS), "timed out");
+    }
+
+    @Test
+    void resultMode_rampsUpUsersThatEachRunOneInstanceAtATime() throws InterruptedException {
+        CountDownLatch starts = new CountDownLatch(5);
+        Set<String> users = ConcurrentHashMap.newKeySet();
+        CountDownLatch allUsers = new CountDownLatch(3);
+        when(executor.startInstanceForVirtualUser(true)).thenAnswer(invocation -> {
+            starts.countDown();
+            if (users.add(Thread.currentThread().getName())) {
+                allUsers.countDown();
+            }
+            return CompletableFuture.completedFuture(1L);
+        });
+        scheduler = new ClosedLoopScheduler(config("result"), executor, stats, tracker, exceptionHandlingStrategy, meterRegistry);
+
+        scheduler.start();
+        // the 5th start means the 4th instance was recorded as finished
+        await(starts);
+        assertEquals(1.0, meterRegistry.get("closed_loop_users").gauge().value());
+        assertTrue(meterRegistry.get("closed_loop_latency").timer().count() >= 4);
+        verify(stats, atLeast(4)).recordProcessInstanceResult(anyLong());
+
+        assertEquals(2, scheduler.endStep(1));
+        assertTrue(scheduler.getThroughputPerUser() > 0);
+        scheduler.addUsers(2);
+        assertEquals(3, scheduler.endStep(2));
+        scheduler.addUsers(3);
+        await(allUsers);
+
+        assertEquals(3.0, meterRegistry.get("closed_loop_users").gauge().value());
+        assertEquals(3, scheduler.endStep(3));
+    }
+
+    @Test
+    void jobMode_waitsForTheCompletionJob() throws InterruptedException {
+        AtomicLong keys = new AtomicLong();
+        CountDownLatch firstStart = new CountDownLatch(1);
+        CountDownLatch secondStart = new CountDownLatch(2);
+        when(executor.startInstanceForVirtualUser(false)).thenAnswer(invocation -> {
+            long key = keys.incrementAndGet();
+            firstStart.countDown();
+            secondStart.countDown();
+            return CompletableFuture.completedFuture(key);
+        });
+        BenchmarkConfiguration config = config("job");
+        config.setVirtualUsers(1);
+        scheduler = new ClosedLoopScheduler(config, executor, stats, tracker, exceptionHandlingStrategy, meterRegistry);
+
+        scheduler.start();
+        await(firstStart);
+        // stuck on its first instance until the completion job was seen
+        assertEquals(0, meterRegistry.get("closed_loop_latency").timer().count());
+        tracker.onCompleted(1L);
+        await(secondStart);
+
+        assertEquals(1, meterRegistry.get("closed_loop_latency").timer().count());
+        assertEquals(2, keys.get());
+        verify(stats, never()).recordProcessInstanceResult(anyLong());
+    }
+
+    @Test
+    void timeout_cancelsTheAbandonedFuture() throws InterruptedException {
+        CompletableFuture<Long> pending = new CompletableFuture<>();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        pending.whenComplete((key, error) -> cancelled.countDown());
+        when(executor.startInstanceForVirtualUser(true)).thenReturn(pending, new CompletableFuture<>());
+        BenchmarkConfiguration config = config("result");
+        config.setVirtualUsers(1);
+        config.setStartWithResultTimeoutMillis(50);
+        scheduler = new ClosedLoopScheduler(config, executor, stats, tracker, exceptionHandlingStrategy, meterRegistry);
+
+        scheduler.start();
+        await(cancelled);
+
+        assertTrue(pending.isCancelled());
+        assertEquals(1.0, meterRegistry.get("closed_loop_errors").counter().count());
+    }
+
+    @Test
+    void failedStart_isCountedLikeTheOtherStrategies() throws InterruptedException {
+        RuntimeException backpressure = Status.RESOURCE_EXHAUSTED.asRuntimeException();
+        CountDownLatch counted = new CountDownLatch(1);
+        when(executor.startInstanceForVirtualUser(true))
+                .thenReturn(CompletableFuture.failedFuture(backpressure), new CompletableFuture<>());
+        when(exceptionHandlingStrategy.countException(backpressure)).thenAnswer(invocation -> {
+            counted.countDown();
+            return true;
+        });
+        BenchmarkConfiguration config = config("result");
+        config.setVirtualUsers(1);
+        scheduler = new ClosedLoopScheduler(config, executor, stats, tracker, exceptionHandlingStrategy, meterRegistry);
+
+        scheduler.start();
+        await(counted);
+
+        assertEquals(1.0, meterRegistry.get("closed_loop_errors").counter().count());
+        verify(stats, never()).incStartedProcessInstancesBackpressure();
+    }
+
+    @Test
+    void unknownCompletionMode_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClosedLoopScheduler(config("poll"), executor, stats, tracker, exceptionHandlingStrategy, meterRegistry));
+        verify(executor, never()).startInstanceForVirtualUser(anyBoolean());
+    }
+}
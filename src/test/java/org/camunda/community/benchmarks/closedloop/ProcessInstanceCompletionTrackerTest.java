@@ -0,0 +1,54 @@
+package org.camunda.community.benchmarks.closedloop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessInstanceCompletionTrackerTest {
+
+    @Test
+    void completion_isSeenWhetherItArrivesBeforeOrAfterAwaiting() {
+        ProcessInstanceCompletionTracker tracker = new ProcessInstanceCompletionTracker();
+        tracker.enable(60_000);
+
+        CompletableFuture<Void> awaitedFirst = tracker.await(1L);
+        assertFalse(awaitedFirst.isDone());
+        tracker.onCompleted(1L);
+        assertTrue(awaitedFirst.isDone());
+
+        tracker.onCompleted(2L);
+        assertTrue(tracker.await(2L).isDone());
+
+        tracker.forget(1L);
+        tracker.forget(2L);
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void disabled_ignoresCompletions() {
+        ProcessInstanceCompletionTracker tracker = new ProcessInstanceCompletionTracker();
+
+        tracker.onCompleted(1L);
+
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void unclaimedCompletions_areEvicted() {
+        ProcessInstanceCompletionTracker tracker = new ProcessInstanceCompletionTracker();
+        tracker.enable(1);
+        tracker.onCompleted(1L);
+        long now = System.nanoTime();
+
+        tracker.evictExpired(now);
+        assertEquals(1, tracker.size());
+        tracker.evictExpired(now + TimeUnit.MILLISECONDS.toNanos(2));
+
+        assertEquals(0, tracker.size());
+    }
+}
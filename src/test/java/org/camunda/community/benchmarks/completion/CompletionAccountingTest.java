@@ -0,0 +1,58 @@
+package org.camunda.community.benchmarks.completion;
+
+import io.camunda.client.metrics.MetricsRecorder;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class CompletionAccountingTest {
+
+    private final MetricsRecorder metricsRecorder = mock(MetricsRecorder.class);
+    private final StatisticsCollector stats = mock(StatisticsCollector.class);
+    private final CompletionAccounting accounting = new CompletionAccounting("task-1", metricsRecorder, stats);
+
+    @Test
+    void flush_publishesTheCountsOfTheBatchOnce() {
+        accounting.onSent();
+        accounting.onSent();
+        accounting.onSent();
+        accounting.onCompletion(1000, null);
+        accounting.onCompletion(1000, null);
+        accounting.onCompletion(1000, new RuntimeException("NOT_FOUND"));
+
+        accounting.flush();
+
+        verify(stats).incCompletedJobs(3);
+        verify(metricsRecorder).increaseCompleted(new MetricsRecorder.CounterMetricsContext("job_completion", Map.of("type", "task-1"), 2));
+        verify(metricsRecorder).increaseFailed(new MetricsRecorder.CounterMetricsContext("job_completion", Map.of("type", "task-1"), 1));
+    }
+
+    @Test
+    void flush_publishesNothingWithoutCompletions() {
+        accounting.onSent();
+        accounting.flush();
+        reset(stats, metricsRecorder);
+
+        accounting.flush();
+
+        verifyNoInteractions(stats, metricsRecorder);
+    }
+
+    @Test
+    void totals_countOnlyFlushedCommands() {
+        accounting.onSent();
+        accounting.onSent();
+        accounting.onCompletion(1000, null);
+        accounting.flush();
+        accounting.onCompletion(1000, new RuntimeException("NOT_FOUND"));
+
+        // one of them still pending, as far as the flushed totals know
+        assertEquals(2, accounting.getSentTotal());
+        assertEquals(1, accounting.getSucceededTotal());
+        assertEquals(0, accounting.getFailedTotal());
+    }
+}
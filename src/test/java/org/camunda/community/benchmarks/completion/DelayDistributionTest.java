@@ -0,0 +1,118 @@
+package org.camunda.community.benchmarks.completion;
+
+import org.camunda.community.benchmarks.config.JobDelaySettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DelayDistributionTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void noSettings_isTheDefaultDelay() {
+        assertEquals(150, DelayDistribution.of(null, 150).sampleMillis());
+        assertEquals(150, DelayDistribution.of(settings("constant"), 150).sampleMillis());
+
+        JobDelaySettings constant = settings("constant");
+        constant.setMillis(42L);
+        assertEquals(42, DelayDistribution.of(constant, 150).sampleMillis());
+    }
+
+    @Test
+    void uniform_staysWithinItsRange() {
+        JobDelaySettings uniform = settings("uniform");
+        uniform.setMinMillis(10);
+        uniform.setMaxMillis(20);
+
+        long[] samples = sample(DelayDistribution.of(uniform, 0));
+
+        assertEquals(10, samples[0]);
+        assertEquals(20, samples[SAMPLES - 1]);
+    }
+
+    @Test
+    void exponential_hasTheConfiguredMean() {
+        JobDelaySettings exponential = settings("exponential");
+        exponential.setMeanMillis(100);
+
+        long[] samples = sample(DelayDistribution.of(exponential, 0));
+
+        assertEquals(100, Arrays.stream(samples).average().orElseThrow(), 2);
+        // median of an exponential distribution is mean * ln(2)
+        assertEquals(69, samples[SAMPLES / 2], 3);
+    }
+
+    @Test
+    void logNormal_hasTheConfiguredMedianAndP99() {
+        JobDelaySettings logNormal = settings("logNormal");
+        logNormal.setMedianMillis(100);
+        logNormal.setP99Millis(1000);
+
+        long[] samples = sample(DelayDistribution.of(logNormal, 0));
+
+        assertEquals(100, samples[SAMPLES / 2], 3);
+        assertEquals(1000, samples[SAMPLES * 99 / 100], 50);
+    }
+
+    @Test
+    void maxMillis_capsTheTail() {
+        JobDelaySettings exponential = settings("exponential");
+        exponential.setMeanMillis(100);
+        exponential.setMaxMillis(150);
+
+        long[] samples = sample(DelayDistribution.of(exponential, 0));
+
+        assertEquals(150, samples[SAMPLES - 1]);
+    }
+
+    @Test
+    void empirical_interpolatesBetweenPercentiles() {
+        JobDelaySettings empirical = settings("empirical");
+        empirical.setPercentiles(new ByteArrayResource("""
+                # percentile,millis
+                10,100
+                50,200
+
+                90,1000
+                """.getBytes(StandardCharsets.UTF_8)));
+        EmpiricalDelayDistribution distribution = EmpiricalDelayDistribution.parse("10,100\n50,200\n90,1000");
+
+        assertEquals(100, distribution.valueAt(0.01));
+        assertEquals(150, distribution.valueAt(0.3));
+        assertEquals(200, distribution.valueAt(0.5));
+        assertEquals(600, distribution.valueAt(0.7));
+        assertEquals(1000, distribution.valueAt(0.99));
+
+        long[] samples = sample(DelayDistribution.of(empirical, 0));
+        assertEquals(200, samples[SAMPLES / 2], 5);
+    }
+
+    @Test
+    void invalidSettings_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DelayDistribution.of(settings("pareto"), 0));
+        assertThrows(IllegalArgumentException.class, () -> DelayDistribution.of(settings("exponential"), 0));
+        assertThrows(IllegalArgumentException.class, () -> DelayDistribution.of(settings("empirical"), 0));
+        assertThrows(IllegalArgumentException.class, () -> EmpiricalDelayDistribution.parse("50,200\n10,100"));
+        assertThrows(IllegalArgumentException.class, () -> EmpiricalDelayDistribution.parse("50"));
+    }
+
+    private static JobDelaySettings settings(String distribution) {
+        JobDelaySettings settings = new JobDelaySettings();
+        settings.setDistribution(distribution);
+        return settings;
+    }
+
+    private static long[] sample(DelayDistribution distribution) {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = distribution.sampleMillis();
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+}
@@ -0,0 +1,107 @@
+package org.camunda.community.benchmarks.completion;
+
+import org.camunda.community.benchmarks.config.JobTypeSettings;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultInjectionTest {
+
+    @Test
+    void noRates_alwaysCompletes() {
+        FaultInjection faults = new FaultInjection(new JobTypeSettings());
+
+        assertFalse(faults.isEnabled());
+        assertEquals(FaultInjection.Outcome.COMPLETE, faults.next());
+    }
+
+    @Test
+    void outcomes_followTheConfiguredRates() {
+        JobTypeSettings settings = new JobTypeSettings();
+        settings.setFailureRate(0.1);
+        settings.setErrorRate(0.2);
+        settings.setTimeoutRate(0.3);
+        FaultInjection faults = new FaultInjection(settings);
+
+        Map<FaultInjection.Outcome, Integer> counts = new EnumMap<>(FaultInjection.Outcome.class);
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            counts.merge(faults.next(), 1, Integer::sum);
+        }
+
+        assertTrue(faults.isEnabled());
+        assertEquals(0.1, counts.get(FaultInjection.Outcome.FAIL) / (double) draws, 0.01);
+        assertEquals(0.2, counts.get(FaultInjection.Outcome.THROW_ERROR) / (double) draws, 0.01);
+        assertEquals(0.3, counts.get(FaultInjection.Outcome.TIME_OUT) / (double) draws, 0.01);
+        assertEquals(0.4, counts.get(FaultInjection.Outcome.COMPLETE) / (double) draws, 0.01);
+    }
+
+    @Test
+    void failure_decrementsRetriesUnlessConfigured() {
+        JobTypeSettings settings = new JobTypeSettings();
+        FaultInjection decrementing = new FaultInjection(settings);
+        settings.setFailureRetries(0);
+        settings.setFailureRetryBackoff(Duration.ofSeconds(1));
+        FaultInjection incidents = new FaultInjection(settings);
+
+        assertEquals(2, decrementing.retriesAfterFailure(3));
+        assertEquals(0, decrementing.retriesAfterFailure(0));
+        assertNull(decrementing.getRetryBackoff());
+        assertEquals(0, incidents.retriesAfterFailure(3));
+        assertEquals(Duration.ofSeconds(1), incidents.getRetryBackoff());
+    }
+
+    @Test
+    void errors_useTheConfiguredCodes() {
+        JobTypeSettings settings = new JobTypeSettings();
+        settings.setErrorRate(1.0);
+        settings.setErrorCodes(List.of("code-a", "code-b"));
+        FaultInjection faults = new FaultInjection(settings);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(List.of("code-a", "code-b").contains(faults.nextError().getErrorCode()));
+        }
+        settings.setErrorCodes(List.of());
+        assertThrows(IllegalArgumentException.class, () -> new FaultInjection(settings));
+    }
+
+    @Test
+    void errors_withoutCodes_useTheDefaultCode() {
+        JobTypeSettings settings = new JobTypeSettings();
+        settings.setErrorRate(1.0);
+
+        assertEquals("benchmark-error", new FaultInjection(settings).nextError().getErrorCode());
+    }
+
+    @Test
+    void settings_areMergedWithTheDefaultsOneByOne() {
+        JobTypeSettings defaults = new JobTypeSettings();
+        defaults.setErrorRate(0.1);
+        defaults.setErrorCodes(List.of("default-code"));
+        defaults.setTimeoutRate(0.2);
+        JobTypeSettings type = new JobTypeSettings();
+        type.setErrorCodes(List.of("type-code"));
+        type.setTimeoutRate(0.0);
+
+        JobTypeSettings merged = type.withDefaults(defaults);
+
+        assertEquals(0.1, merged.getErrorRate(), 0);
+        assertEquals(List.of("type-code"), merged.getErrorCodes());
+        assertEquals(0.0, merged.getTimeoutRate(), 0);
+        assertEquals("type-code", new FaultInjection(merged).nextError().getErrorCode());
+    }
+
+    @Test
+    void ratesAboveOne_areRejected() {
+        JobTypeSettings settings = new JobTypeSettings();
+        settings.setFailureRate(0.6);
+        settings.setTimeoutRate(0.6);
+
+        assertThrows(IllegalArgumentException.class, () -> new FaultInjection(settings));
+    }
+}
@@ -0,0 +1,61 @@
+package org.camunda.community.benchmarks.completion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.camunda.community.benchmarks.config.JobOutputSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobOutputTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void overwrite_sendsTheSameEncodedDocumentForEveryJob() throws Exception {
+        JobOutput output = JobOutput.of("benchmark-task-1", settings(3, 100, "overwrite"));
+
+        String first = output.variablesFor(1);
+        assertSame(first, output.variablesFor(2));
+
+        Map<?, ?> variables = objectMapper.readValue(first, Map.class);
+        assertEquals(3, variables.size());
+        assertEquals(100, ((String) variables.get("benchmark_task_1_0")).length());
+        assertTrue(variables.containsKey("benchmark_task_1_2"));
+    }
+
+    @Test
+    void append_addsTheJobKeyToEveryVariableName() throws Exception {
+        JobOutputSettings settings = settings(2, 10, "append");
+        settings.setNamePrefix("out");
+        JobOutput output = JobOutput.of("benchmark-task-1", settings);
+
+        Map<?, ?> variables = objectMapper.readValue(output.variablesFor(4711), Map.class);
+
+        assertEquals(2, variables.size());
+        assertEquals(10, ((String) variables.get("out0_4711")).length());
+        assertEquals(variables.get("out0_4711"), variables.get("out1_4711"));
+        assertNotEquals(output.variablesFor(4711), output.variablesFor(4712));
+    }
+
+    @Test
+    void noSettings_meansNoOutput() {
+        assertNull(JobOutput.of("benchmark-task-1", null));
+    }
+
+    @Test
+    void invalidSettings_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> JobOutput.of("task", settings(1, 10, "merge")));
+        assertThrows(IllegalArgumentException.class, () -> JobOutput.of("task", settings(0, 10, "overwrite")));
+    }
+
+    private static JobOutputSettings settings(int variables, int bytes, String mode) {
+        JobOutputSettings settings = new JobOutputSettings();
+        settings.setVariables(variables);
+        settings.setSize(DataSize.ofBytes(bytes));
+        settings.setMode(mode);
+        return settings;
+    }
+}
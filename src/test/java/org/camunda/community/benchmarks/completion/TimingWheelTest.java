@@ -0,0 +1,83 @@
+package org.camunda.community.benchmarks.completion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+
+    private final List<String> ran = new ArrayList<>();
+
+    @Test
+    void runsTasksNotBeforeTheirDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 0);
+        wheel.schedule(() -> ran.add("a"), 25);
+        wheel.schedule(() -> ran.add("b"), 10);
+
+        assertEquals(0, wheel.advance(9));
+        assertEquals(1, wheel.advance(10));
+        assertEquals(List.of("b"), ran);
+        assertEquals(0, wheel.advance(29));
+        assertEquals(1, wheel.advance(30));
+        assertEquals(List.of("b", "a"), ran);
+        assertEquals(0, wheel.getPending());
+    }
+
+    @Test
+    void waitsFullRotationsForDelaysLongerThanTheWheel() {
+        TimingWheel wheel = new TimingWheel(TICK, 4, 0);
+        // slot 2, but two rotations later
+        wheel.schedule(() -> ran.add("late"), 100);
+        wheel.schedule(() -> ran.add("early"), 20);
+
+        wheel.advance(20);
+        assertEquals(List.of("early"), ran);
+        wheel.advance(60);
+        assertEquals(List.of("early"), ran);
+        wheel.advance(99);
+        assertEquals(List.of("early"), ran);
+        assertEquals(1, wheel.getPending());
+        wheel.advance(100);
+        assertEquals(List.of("early", "late"), ran);
+    }
+
+    @Test
+    void runsOverdueTasksInTheNextTickAndReportsLag() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 0);
+        wheel.advance(0);
+        wheel.schedule(() -> ran.add("overdue"), -50);
+        wheel.schedule(() -> ran.add("due"), 15);
+
+        assertEquals(2, wheel.advance(37));
+        assertEquals(List.of("overdue", "due"), ran);
+        // tick 1 was due at 10
+        assertEquals(27, wheel.getLastTickLagNanos());
+        assertEquals(40, wheel.nextTickNanos());
+    }
+
+    @Test
+    void keepsRunningTheBatchIfATaskFails() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 0);
+        wheel.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, 10);
+        wheel.schedule(() -> ran.add("next"), 10);
+
+        assertEquals(2, wheel.advance(10));
+        assertEquals(List.of("next"), ran);
+    }
+
+    @Test
+    void roundsWheelSizeUpToPowerOfTwo() {
+        TimingWheel wheel = new TimingWheel(TICK, 5, 0);
+        // with 8 buckets, tick 6 is still in the first rotation
+        wheel.schedule(() -> ran.add("a"), 60);
+        wheel.advance(60);
+        assertEquals(List.of("a"), ran);
+    }
+}
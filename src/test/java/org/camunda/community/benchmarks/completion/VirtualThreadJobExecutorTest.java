@@ -0,0 +1,59 @@
+package org.camunda.community.benchmarks.completion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadJobExecutorTest {
+
+    @Test
+    void execute_runsHandlerOnVirtualThreadAfterDelay() throws Exception {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setJobHandlerExecution("virtualThreads");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadJobExecutor executor = new VirtualThreadJobExecutor(config, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Thread> handlerThread = new CompletableFuture<>();
+
+        long start = System.nanoTime();
+        executor.execute(() -> {
+            handlerThread.complete(Thread.currentThread());
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 50);
+
+        Thread thread = handlerThread.get(5, TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(thread.isVirtual());
+        assertEquals(1, executor.getActive());
+        assertEquals(1.0, meterRegistry.get("job_handler_virtual_threads").gauge().value());
+
+        release.countDown();
+        thread.join(5000);
+        assertEquals(0, executor.getActive());
+    }
+
+    @Test
+    void schedulerMode_isDisabled() {
+        VirtualThreadJobExecutor executor = new VirtualThreadJobExecutor(new BenchmarkConfiguration(), new SimpleMeterRegistry());
+
+        assertFalse(executor.isEnabled());
+    }
+
+    @Test
+    void unknownMode_isRejected() {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setJobHandlerExecution("threads");
+
+        assertThrows(IllegalArgumentException.class, () -> new VirtualThreadJobExecutor(config, new SimpleMeterRegistry()));
+    }
+}
@@ -23,17 +23,28 @@ class FlowControlConditionalBeanTest {
      */
     @Configuration
     @ConditionalOnProperty(name = "benchmark.startProcesses", havingValue = "true", matchIfMissing = true)
-    @ConditionalOnExpression(FlowControlStrategyExpressions.IS_NOT_FLOW_CONTROL_STRATEGY)
+    @ConditionalOnExpression(FlowControlStrategyExpressions.IS_CLASSIC_PI_SCHEDULER_STRATEGY)
     static class ClassicSchedulerStandIn {
     }
 
+    @Configuration
+    @ConditionalOnExpression(FlowControlStrategyExpressions.IS_NOT_FLOW_CONTROL_STRATEGY)
+    static class DecisionSchedulerStandIn {
+    }
+
+    @Configuration
+    @ConditionalOnExpression(FlowControlStrategyExpressions.IS_CLOSED_LOOP_STRATEGY)
+    static class ClosedLoopStandIn {
+    }
+
     @Configuration
     @ConditionalOnExpression(FlowControlStrategyExpressions.IS_FLOW_CONTROL_STRATEGY)
     static class FlowControlStandIn {
     }
 
     private final ApplicationContextRunner runner = new ApplicationContextRunner()
-            .withUserConfiguration(ClassicSchedulerStandIn.class, FlowControlStandIn.class);
+            .withUserConfiguration(ClassicSchedulerStandIn.class, DecisionSchedulerStandIn.class,
+                    FlowControlStandIn.class, ClosedLoopStandIn.class);
 
     @Test
     void backoffStrategy_activatesFlowControlBeans() {
@@ -62,12 +73,33 @@ class FlowControlConditionalBeanTest {
                 });
     }
 
+    @Test
+    void concurrencyLimitStrategy_activatesFlowControlBeans() {
+        runner.withPropertyValues("benchmark.startRateAdjustmentStrategy=concurrencyLimit")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(FlowControlStandIn.class);
+                    assertThat(context).doesNotHaveBean(ClassicSchedulerStandIn.class);
+                });
+    }
+
+    @Test
+    void closedLoopStrategy_activatesOnlyVirtualUsersAndDecisionScheduler() {
+        runner.withPropertyValues("benchmark.startRateAdjustmentStrategy=closedLoop")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ClosedLoopStandIn.class);
+                    assertThat(context).hasSingleBean(DecisionSchedulerStandIn.class);
+                    assertThat(context).doesNotHaveBean(ClassicSchedulerStandIn.class);
+                    assertThat(context).doesNotHaveBean(FlowControlStandIn.class);
+                });
+    }
+
     @Test
     void backpressureStrategy_activatesClassicScheduler() {
         runner.withPropertyValues("benchmark.startRateAdjustmentStrategy=backpressure")
                 .run(context -> {
                     assertThat(context).hasSingleBean(ClassicSchedulerStandIn.class);
                     assertThat(context).doesNotHaveBean(FlowControlStandIn.class);
+                    assertThat(context).doesNotHaveBean(ClosedLoopStandIn.class);
                 });
     }
 
@@ -1,12 +1,12 @@
 package org.camunda.community.benchmarks.flowcontrol;
 
-import com.codahale.metrics.Meter;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.camunda.community.benchmarks.StartPiExecutor;
 import org.camunda.community.benchmarks.StatisticsCollector;
 import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.metrics.StatsMeter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,10 +15,12 @@ import org.mockito.MockitoAnnotations;
 
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
@@ -34,13 +36,13 @@ class Bucket4jPiSchedulerTest {
     private BenchmarkConfiguration config;
 
     @Mock
-    private Meter startedMeter;
+    private StatsMeter startedMeter;
 
     @Mock
-    private Meter backpressureMeter;
+    private StatsMeter backpressureMeter;
 
     @Mock
-    private Meter completedJobsMeter;
+    private StatsMeter completedJobsMeter;
 
     private SimpleMeterRegistry meterRegistry;
     private Bucket bucket;
@@ -284,8 +286,8 @@ class Bucket4jPiSchedulerTest {
         AtomicInteger callCount = new AtomicInteger();
         doAnswer(invocation -> {
             callCount.incrementAndGet();
-            return null;
-        }).when(executor).startInstance();
+            return true;
+        }).when(executor).startInstance(anyLong());
 
         Bucket4jPiScheduler scheduler = createScheduler(ratePerSecond, "backoff");
         scheduler.start();
@@ -303,4 +305,29 @@ class Bucket4jPiSchedulerTest {
         assertTrue(observed < expected * 3,
                 "expected at most ~300% of " + expected + " calls in " + runMillis + "ms, got " + observed);
     }
+
+    @Test
+    void startLoop_passesIntendedStartThatRevealsStalls() throws InterruptedException {
+        AtomicInteger callCount = new AtomicInteger();
+        AtomicLong maxLagMillis = new AtomicLong();
+        AtomicLong minLagMillis = new AtomicLong(Long.MAX_VALUE);
+        doAnswer(invocation -> {
+            long lag = System.currentTimeMillis() - invocation.<Long>getArgument(0);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+            minLagMillis.accumulateAndGet(lag, Math::min);
+            if (callCount.incrementAndGet() == 1) {
+                // the loop is held up, e.g. by a full in-flight window
+                Thread.sleep(100);
+            }
+            return true;
+        }).when(executor).startInstance(anyLong());
+
+        Bucket4jPiScheduler scheduler = createScheduler(200, "backoff");
+        scheduler.start();
+        Thread.sleep(300);
+        scheduler.stop();
+
+        assertTrue(maxLagMillis.get() >= 50, "stall not visible in the intended start, max lag " + maxLagMillis.get());
+        assertTrue(minLagMillis.get() >= 0, "intended start in the future, lag " + minLagMillis.get());
+    }
 }
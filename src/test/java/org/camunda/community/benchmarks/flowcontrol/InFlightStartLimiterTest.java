@@ -0,0 +1,99 @@
+package org.camunda.community.benchmarks.flowcontrol;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InFlightStartLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InFlightStartLimiter limiter(int maxInFlightStarts) {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setMaxInFlightStarts(maxInFlightStarts);
+        return new InFlightStartLimiter(config, meterRegistry);
+    }
+
+    private InFlightStartLimiter concurrencyLimiter(int initialLimit) {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setStartRateAdjustmentStrategy("concurrencyLimit");
+        config.setInitialConcurrencyLimit(initialLimit);
+        return new InFlightStartLimiter(config, meterRegistry);
+    }
+
+    @Test
+    void unlimited_onlyCountsInFlight() {
+        InFlightStartLimiter limiter = limiter(0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limiter.acquire());
+        }
+
+        assertEquals(1000, limiter.getInFlight());
+        assertEquals(1000.0, meterRegistry.get("pi_inflight_starts").gauge().value());
+    }
+
+    @Test
+    void limited_blocksUntilReleased() throws InterruptedException {
+        InFlightStartLimiter limiter = limiter(1);
+        assertTrue(limiter.acquire());
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            limiter.acquire();
+            acquired.countDown();
+        });
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        limiter.release();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(2, meterRegistry.get("pi_inflight_permit_wait").timer().count());
+    }
+
+    @Test
+    void interruptedWhileWaiting_doesNotAcquire() throws InterruptedException {
+        InFlightStartLimiter limiter = limiter(1);
+        assertTrue(limiter.acquire());
+
+        boolean[] result = new boolean[1];
+        Thread waiter = Thread.ofVirtual().start(() -> result[0] = limiter.acquire());
+        Thread.sleep(50);
+        waiter.interrupt();
+        waiter.join();
+
+        assertFalse(result[0]);
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void concurrencyLimit_backpressureShrinksLimit() {
+        InFlightStartLimiter limiter = concurrencyLimiter(100);
+        assertTrue(limiter.acquire());
+
+        limiter.release(10_000_000, Status.RESOURCE_EXHAUSTED.asRuntimeException());
+
+        assertEquals(98, limiter.getLimit());
+        assertEquals(98.0, meterRegistry.get("pi_inflight_limit").gauge().value());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void concurrencyLimit_otherErrorsKeepLimit() {
+        InFlightStartLimiter limiter = concurrencyLimiter(100);
+        assertTrue(limiter.acquire());
+
+        limiter.release(10_000_000, new IllegalStateException("unrelated"));
+
+        assertEquals(100, limiter.getLimit());
+    }
+}
@@ -0,0 +1,75 @@
+package org.camunda.community.benchmarks.flowcontrol;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VegasConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    // high probe multiplier, so the no-load RTT isn't reset in the middle of a test
+    private VegasConcurrencyLimit limit(int initial) {
+        return new VegasConcurrencyLimit(initial, 1, 1000, 1000);
+    }
+
+    @Test
+    void steadyLatency_growsLimit() {
+        VegasConcurrencyLimit limit = limit(20);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MS, limit.getLimit(), false);
+        }
+
+        assertTrue(limit.getLimit() > 100, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void risingLatency_shrinksLimit() {
+        VegasConcurrencyLimit limit = limit(100);
+        limit.onSample(10 * MS, 100, false);
+        int before = limit.getLimit();
+
+        // twice the no-load latency: half of the in-flight commands are queueing
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(20 * MS, limit.getLimit(), false);
+        }
+
+        assertTrue(limit.getLimit() < before, "limit " + limit.getLimit() + " not below " + before);
+    }
+
+    @Test
+    void drop_shrinksLimit() {
+        VegasConcurrencyLimit limit = limit(100);
+
+        limit.onSample(10 * MS, 100, true);
+
+        assertEquals(98, limit.getLimit());
+    }
+
+    @Test
+    void appLimited_keepsLimit() {
+        VegasConcurrencyLimit limit = limit(100);
+
+        limit.onSample(10 * MS, 10, false);
+
+        assertEquals(100, limit.getLimit());
+        assertEquals(10 * MS, limit.getRttNoLoadNanos());
+    }
+
+    @Test
+    void limit_staysWithinBounds() {
+        VegasConcurrencyLimit limit = new VegasConcurrencyLimit(5, 2, 8, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(10 * MS, limit.getLimit(), false);
+        }
+        assertEquals(8, limit.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(10 * MS, limit.getLimit(), true);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+}
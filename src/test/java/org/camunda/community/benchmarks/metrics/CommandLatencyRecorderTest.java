@@ -0,0 +1,58 @@
+package org.camunda.community.benchmarks.metrics;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandLatencyRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CommandLatencyRecorder recorder = new CommandLatencyRecorder(meterRegistry, new HdrIntervalLog(null, null));
+
+    @Test
+    void record_tagsByOperationAndStatus() {
+        for (int i = 1; i <= 100; i++) {
+            recorder.record("CompleteJob", null, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        recorder.record("CreateProcessInstance", Status.RESOURCE_EXHAUSTED.asRuntimeException(), TimeUnit.MILLISECONDS.toNanos(5));
+
+        recorder.roll();
+
+        double p99 = meterRegistry.get("command_latency").tags("op", "CompleteJob", "status", "OK", "quantile", "0.99").gauge().value();
+        assertEquals(99, p99, 1);
+        assertEquals(100, meterRegistry.get("command_latency_count").tags("op", "CompleteJob", "status", "OK").functionCounter().count());
+        assertEquals(1, meterRegistry.get("command_latency_count").tags("op", "CreateProcessInstance", "status", "RESOURCE_EXHAUSTED").functionCounter().count());
+    }
+
+    @Test
+    void drainSinceLastPrint_resets() {
+        recorder.record("CompleteJob", null, TimeUnit.MILLISECONDS.toNanos(3));
+        recorder.roll();
+
+        Map<String, Histogram> first = recorder.drainSinceLastPrint();
+        Map<String, Histogram> second = recorder.drainSinceLastPrint();
+
+        assertEquals(1, first.get("CompleteJob OK").getTotalCount());
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    void window_forgetsOldIntervals() {
+        recorder.record("CompleteJob", null, TimeUnit.MILLISECONDS.toNanos(500));
+        recorder.roll();
+        for (int i = 0; i < CommandLatencyRecorder.WINDOW_SECONDS; i++) {
+            recorder.record("CompleteJob", null, TimeUnit.MILLISECONDS.toNanos(1));
+            recorder.roll();
+        }
+
+        double max = meterRegistry.get("command_latency").tags("op", "CompleteJob", "status", "OK", "quantile", "max").gauge().value();
+        assertEquals(1, max, 0.1);
+    }
+}
@@ -0,0 +1,63 @@
+package org.camunda.community.benchmarks.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HdrIntervalLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void disabledWithoutFile() {
+        HdrIntervalLog log = new HdrIntervalLog(null, "starter");
+        assertFalse(log.isEnabled());
+        assertNull(log.recorder("pi_cycletime"));
+    }
+
+    @Test
+    void writesTaggedIntervals() throws Exception {
+        Path file = dir.resolve("logs/latency.hlog");
+        HdrIntervalLog log = new HdrIntervalLog(file.toString(), "starter");
+        Recorder cycleTime = log.recorder("pi_cycletime");
+        Recorder jobTimer = log.recorder("job_timer.benchmark task,1");
+        log.open();
+
+        for (int i = 1; i <= 1000; i++) {
+            cycleTime.recordValue(i * 1000L);
+        }
+        jobTimer.recordValue(1234);
+        log.writeIntervals();
+        // nothing recorded, nothing written
+        log.writeIntervals();
+        jobTimer.recordValue(4321);
+        log.writeIntervals();
+
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, Long> maxValues = new HashMap<>();
+        readAll(file, counts, maxValues);
+        assertEquals(Map.of("pi_cycletime", 1000L, "job_timer.benchmark_task_1", 2L), counts);
+        assertEquals(1000 * 1000L, maxValues.get("pi_cycletime"), 1000 * 1000L / 1000.0);
+    }
+
+    private static void readAll(Path file, Map<String, Long> counts, Map<String, Long> maxValues) throws FileNotFoundException {
+        HistogramLogReader reader = new HistogramLogReader(file.toFile());
+        Histogram histogram;
+        while ((histogram = (Histogram) reader.nextIntervalHistogram()) != null) {
+            counts.merge(histogram.getTag(), histogram.getTotalCount(), Long::sum);
+            maxValues.merge(histogram.getTag(), histogram.getMaxValue(), Math::max);
+        }
+    }
+}
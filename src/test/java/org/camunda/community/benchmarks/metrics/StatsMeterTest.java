@@ -0,0 +1,80 @@
+package org.camunda.community.benchmarks.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatsMeterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000);
+    private final StatsMeter meter = new StatsMeter(nanos::get);
+
+    @Test
+    void countsMarks() {
+        meter.mark();
+        meter.mark(41);
+        assertEquals(42, meter.getCount());
+    }
+
+    @Test
+    void exportsCountAsMicrometerCounter() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StatsMeter exported = new StatsMeter("pi_started", registry);
+        exported.mark(3);
+        assertEquals(3.0, registry.get("pi_started").functionCounter().count());
+    }
+
+    @Test
+    void rateIsZeroBeforeFirstTick() {
+        meter.mark(100);
+        assertEquals(0.0, meter.getOneMinuteRate());
+    }
+
+    @Test
+    void firstTickSetsRate() {
+        meter.mark(500);
+        nanos.addAndGet(StatsMeter.TICK_INTERVAL_NANOS);
+        assertEquals(100.0, meter.getOneMinuteRate(), 1e-9);
+    }
+
+    @Test
+    void convergesToSteadyRate() {
+        for (int tick = 0; tick < 12 * 10; tick++) {
+            meter.mark(250);
+            nanos.addAndGet(StatsMeter.TICK_INTERVAL_NANOS);
+            meter.getOneMinuteRate();
+        }
+        assertEquals(50.0, meter.getOneMinuteRate(), 0.01);
+    }
+
+    @Test
+    void readRarely_reportsTheSteadyRate() {
+        // 50 events per second, marked every 100 ms, the rate only read every 30 s and then every 60 s
+        for (int second = 1; second <= 20 * 60; second++) {
+            for (int i = 0; i < 10; i++) {
+                nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+                meter.mark(5);
+            }
+            if (second > 5 * 60 && second <= 10 * 60 && second % 30 == 0) {
+                assertEquals(50.0, meter.getOneMinuteRate(), 0.5);
+            }
+            if (second > 10 * 60 && second % 60 == 0) {
+                assertEquals(50.0, meter.getOneMinuteRate(), 0.5);
+            }
+        }
+    }
+
+    @Test
+    void decaysLikeDropwizardWhenIdle() {
+        meter.mark(500);
+        nanos.addAndGet(StatsMeter.TICK_INTERVAL_NANOS);
+        meter.getOneMinuteRate();
+        // a minute later, the rate decayed to 1/e
+        nanos.addAndGet(12 * StatsMeter.TICK_INTERVAL_NANOS);
+        assertEquals(100.0 * Math.exp(-1), meter.getOneMinuteRate(), 1e-6);
+    }
+}
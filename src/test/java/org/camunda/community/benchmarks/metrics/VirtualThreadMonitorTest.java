@@ -0,0 +1,22 @@
+package org.camunda.community.benchmarks.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadMonitorTest {
+
+    @Test
+    void utilization_isCpuTimeRelativeToAllCarriers() {
+        assertEquals(0.25, VirtualThreadMonitor.utilization(1_000, 1_000, 4), 1e-9);
+        assertEquals(1.0, VirtualThreadMonitor.utilization(9_000, 1_000, 4), 1e-9);
+        assertEquals(0.0, VirtualThreadMonitor.utilization(1_000, 0, 4), 1e-9);
+    }
+
+    @Test
+    void carrierThreads_areRecognizedByName() {
+        assertTrue(VirtualThreadMonitor.CARRIER_THREAD_NAME.matcher("ForkJoinPool-1-worker-3").matches());
+        assertFalse(VirtualThreadMonitor.CARRIER_THREAD_NAME.matcher("ForkJoinPool.commonPool-worker-1").matches());
+        assertFalse(VirtualThreadMonitor.CARRIER_THREAD_NAME.matcher("job-completion-wheel").matches());
+    }
+}
@@ -0,0 +1,81 @@
+package org.camunda.community.benchmarks.payload;
+
+import io.camunda.client.api.JsonMapper;
+import io.camunda.client.impl.CamundaObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadGeneratorTest {
+
+    private final JsonMapper jsonMapper = new CamundaObjectMapper();
+
+    @Test
+    void generate_replacesPlaceholdersPerInstance() {
+        PayloadGenerator generator = new PayloadGenerator(
+                "{\"id\": \"${UUID}\", \"seq\": ${SEQ}, \"count\": ${RANDOM_INT:3:5}, \"text\": \"${RANDOM_STRING:8}\"}");
+
+        Map<String, Object> first = jsonMapper.fromJsonAsMap(generator.generate());
+        Map<String, Object> second = jsonMapper.fromJsonAsMap(generator.generate());
+
+        assertEquals(4, UUID.fromString((String) first.get("id")).version());
+        assertNotEquals(first.get("id"), second.get("id"));
+        assertEquals(1, ((Number) first.get("seq")).intValue());
+        assertEquals(2, ((Number) second.get("seq")).intValue());
+        int count = ((Number) first.get("count")).intValue();
+        assertTrue(count >= 3 && count <= 5);
+        assertTrue(((String) first.get("text")).matches("[a-zA-Z0-9]{8}"));
+    }
+
+    @Test
+    void generate_stringLengthsStayWithinRange() {
+        PayloadGenerator uniform = new PayloadGenerator("${RANDOM_STRING:2:6}");
+        PayloadGenerator exponential = new PayloadGenerator("${RANDOM_STRING:10:100:exponential}");
+
+        Set<Integer> uniformLengths = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            int length = uniform.generate().length();
+            assertTrue(length >= 2 && length <= 6, "length " + length);
+            uniformLengths.add(length);
+            length = exponential.generate().length();
+            assertTrue(length >= 10 && length <= 100, "length " + length);
+        }
+        assertEquals(5, uniformLengths.size());
+    }
+
+    @Test
+    void generate_keepsUnknownPlaceholders() {
+        assertEquals("{\"a\": \"${SOMETHING}\"}", new PayloadGenerator("{\"a\": \"${SOMETHING}\"}").generate());
+    }
+
+    @Test
+    void invalidPlaceholder_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator("${RANDOM_INT:5:1}"));
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator("${RANDOM_INT:x:1}"));
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator("${RANDOM_STRING:1:5:gaussian}"));
+    }
+
+    @Test
+    void buffer_generatesInlineOnUnderflow() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GeneratedPayloadBuffer buffer = new GeneratedPayloadBuffer(new PayloadGenerator("{\"seq\": ${SEQ}}"),
+                new PayloadTemplate("starter-1", jsonMapper), 10, 1, meterRegistry);
+
+        // not started: every payload is generated inline
+        Map<String, Object> rendered = jsonMapper.fromJsonAsMap(buffer.next(42L));
+
+        assertEquals(1, ((Number) rendered.get("seq")).intValue());
+        assertEquals("starter-1", rendered.get("benchmark_starter_id"));
+        assertEquals(42L, ((Number) rendered.get("benchmark_start_date_millis")).longValue());
+        assertEquals(1.0, meterRegistry.counter("payload_buffer_underflow", "payload", "default").count());
+    }
+}
@@ -0,0 +1,123 @@
+package org.camunda.community.benchmarks.payload;
+
+import io.camunda.client.CamundaClientConfiguration;
+import io.camunda.client.api.JsonMapper;
+import io.camunda.client.impl.CamundaObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.camunda.community.benchmarks.StartPiExecutor;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.metrics.StatsMeter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PayloadSizeSweepTest {
+
+    private final JsonMapper jsonMapper = new CamundaObjectMapper();
+
+    @Test
+    void syntheticPayload_isPaddedToTargetSize() {
+        Map<String, Object> base = Map.of("var1", "value1", "var2", 15);
+
+        Map<String, Object> payload = PayloadSizeSweep.syntheticPayload(base, 8192, jsonMapper);
+
+        assertEquals(8192, jsonMapper.toJson(payload).getBytes(StandardCharsets.UTF_8).length);
+        assertEquals("value1", payload.get("var1"));
+    }
+
+    @Test
+    void syntheticPayload_biggerThanTarget_isNotPadded() {
+        Map<String, Object> base = Map.of("var1", "value1");
+
+        Map<String, Object> payload = PayloadSizeSweep.syntheticPayload(base, 10, jsonMapper);
+
+        assertFalse(payload.containsKey(PayloadSizeSweep.PADDING_VARIABLE));
+    }
+
+    @Test
+    void resultRow_reportsRatesAndPercentiles() {
+        Histogram cycleTimes = new Histogram(3);
+        for (int i = 1; i <= 100; i++) {
+            cycleTimes.recordValue(i);
+        }
+
+        String row = PayloadSizeSweep.resultRow(2, 8192, 10.0, 1000, 900, 50, cycleTimes);
+
+        assertEquals("2,8192,10.0,100.0,90.0,5.000,50,95,99,100\n", row);
+    }
+
+    @Test
+    void validate_unreplaceablePayload_failsBeforeWritingResults(@TempDir Path dir) {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setPayloadSweepSizes(List.of(DataSize.ofKilobytes(1)));
+        config.setPayloadSweepResultsFile(dir.resolve("results.csv").toString());
+        StartPiExecutor executor = mock(StartPiExecutor.class);
+        doThrow(new IllegalStateException("generated")).when(executor).checkPayloadReplaceable();
+        StatisticsCollector stats = mock(StatisticsCollector.class);
+        CamundaClientConfiguration clientConfiguration = mock(CamundaClientConfiguration.class);
+        when(clientConfiguration.getJsonMapper()).thenReturn(jsonMapper);
+
+        PayloadSizeSweep sweep = new PayloadSizeSweep(executor, stats, config, clientConfiguration);
+
+        assertThrows(IllegalStateException.class, sweep::validate);
+        assertFalse(Files.exists(dir.resolve("results.csv")));
+        verify(stats, never()).addCycleTimeRecorder(any());
+    }
+
+    @Test
+    void start_warmsUpBeforeMeasuringTheFirstStep(@TempDir Path dir) throws Exception {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setPayloadPath(new ClassPathResource("bpmn/typical_payload.json"));
+        config.setPayloadSweepSizes(List.of(DataSize.ofKilobytes(1)));
+        config.setPayloadSweepWarmupMillis(300);
+        config.setPayloadSweepStepDurationMillis(100);
+        config.setPayloadSweepResultsFile(dir.resolve("results.csv").toString());
+        StartPiExecutor executor = mock(StartPiExecutor.class);
+        when(executor.tryReadVariables(any())).thenReturn("{\"var1\": \"value1\"}");
+        StatisticsCollector stats = mock(StatisticsCollector.class);
+        when(stats.getStartedPiMeter()).thenReturn(new StatsMeter("started", new SimpleMeterRegistry()));
+        when(stats.getCompletedProcessInstancesMeter()).thenReturn(new StatsMeter("completed", new SimpleMeterRegistry()));
+        when(stats.getBackpressureOnStartPiMeter()).thenReturn(new StatsMeter("backpressure", new SimpleMeterRegistry()));
+        CamundaClientConfiguration clientConfiguration = mock(CamundaClientConfiguration.class);
+        when(clientConfiguration.getJsonMapper()).thenReturn(jsonMapper);
+        PayloadSizeSweep sweep = new PayloadSizeSweep(executor, stats, config, clientConfiguration);
+        sweep.validate();
+        long startNanos = System.nanoTime();
+
+        sweep.start();
+        List<String> lines = List.of();
+        while (lines.size() < 2 && System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(10)) {
+            Thread.sleep(10);
+            lines = Files.readAllLines(dir.resolve("results.csv"));
+        }
+        sweep.stop();
+
+        assertEquals(2, lines.size());
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(400));
+        // the step itself is measured without the warm-up
+        double stepSeconds = Double.parseDouble(lines.get(1).split(",")[2]);
+        assertTrue(stepSeconds < 0.3, "step duration " + stepSeconds);
+        verify(executor).replacePayload(any());
+    }
+}
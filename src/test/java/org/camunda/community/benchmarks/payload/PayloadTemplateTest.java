@@ -0,0 +1,96 @@
+package org.camunda.community.benchmarks.payload;
+
+import io.camunda.client.api.JsonMapper;
+import io.camunda.client.impl.CamundaObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PayloadTemplateTest {
+
+    private final JsonMapper jsonMapper = new CamundaObjectMapper();
+
+    @Test
+    void render_splicesStarterIdAndStartDateIntoPayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("customerId", "c-42");
+        payload.put("amount", 17);
+
+        PayloadTemplate template = new PayloadTemplate("starter-1", jsonMapper);
+        String head = template.headFor(payload);
+        Map<String, Object> rendered = jsonMapper.fromJsonAsMap(PayloadTemplate.render(head, 1234567890123L));
+
+        assertEquals("c-42", rendered.get("customerId"));
+        assertEquals(17, ((Number) rendered.get("amount")).intValue());
+        assertEquals("starter-1", rendered.get("benchmark_starter_id"));
+        assertEquals(1234567890123L, ((Number) rendered.get("benchmark_start_date_millis")).longValue());
+        assertEquals(4, rendered.size());
+    }
+
+    @Test
+    void render_addsIntendedStartOnlyIfStartIsLate() {
+        PayloadTemplate template = new PayloadTemplate("starter-1", jsonMapper);
+        String head = template.headFor(Map.of("amount", 17));
+
+        Map<String, Object> onTime = jsonMapper.fromJsonAsMap(PayloadTemplate.render(head, 100L, 100L));
+        Map<String, Object> late = jsonMapper.fromJsonAsMap(PayloadTemplate.render(head, 100L, 60L));
+
+        assertEquals(3, onTime.size());
+        assertEquals(100L, ((Number) late.get("benchmark_start_date_millis")).longValue());
+        assertEquals(60L, ((Number) late.get("benchmark_intended_start_date_millis")).longValue());
+        assertEquals(4, late.size());
+    }
+
+    @Test
+    void render_withEmptyPayload_producesValidJson() {
+        PayloadTemplate template = new PayloadTemplate("starter-1", jsonMapper);
+
+        Map<String, Object> rendered = jsonMapper.fromJsonAsMap(PayloadTemplate.render(template.headFor(Map.of()), 1L));
+
+        assertEquals(2, rendered.size());
+        assertEquals(1L, ((Number) rendered.get("benchmark_start_date_millis")).longValue());
+    }
+
+    @Test
+    void render_replacesReservedFieldsFromPayloadFile() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("benchmark_start_date_millis", 0);
+        payload.put("benchmark_starter_id", "from-file");
+
+        PayloadTemplate template = new PayloadTemplate("starter-1", jsonMapper);
+        Map<String, Object> rendered = jsonMapper.fromJsonAsMap(PayloadTemplate.render(template.headFor(payload), 99L));
+
+        assertEquals("starter-1", rendered.get("benchmark_starter_id"));
+        assertEquals(99L, ((Number) rendered.get("benchmark_start_date_millis")).longValue());
+    }
+
+    @Test
+    void render_escapesStarterId() {
+        PayloadTemplate template = new PayloadTemplate("quote\"d", jsonMapper);
+
+        Map<String, Object> rendered = jsonMapper.fromJsonAsMap(PayloadTemplate.render(template.headFor(Map.of()), 1L));
+
+        assertEquals("quote\"d", rendered.get("benchmark_starter_id"));
+    }
+
+    @Test
+    void headFor_generatedDocument_appendsReservedFields() {
+        PayloadTemplate template = new PayloadTemplate("starter-1", jsonMapper);
+
+        String head = template.headFor("{\"seq\": 7}\n");
+        Map<String, Object> rendered = jsonMapper.fromJsonAsMap(PayloadTemplate.render(head, 5L));
+
+        assertEquals(7, ((Number) rendered.get("seq")).intValue());
+        assertEquals("starter-1", rendered.get("benchmark_starter_id"));
+        assertEquals(5L, ((Number) rendered.get("benchmark_start_date_millis")).longValue());
+    }
+
+    @Test
+    void openObject_rejectsNonObjects() {
+        assertThrows(IllegalArgumentException.class, () -> PayloadTemplate.openObject("[1,2]"));
+    }
+}
@@ -0,0 +1,136 @@
+package org.camunda.community.benchmarks.refactoring;
+
+import io.camunda.client.api.CamundaFuture;
+import io.camunda.client.api.command.FinalCommandStep;
+import io.camunda.client.jobhandling.CommandWrapper;
+import io.camunda.client.jobhandling.DefaultCommandExceptionHandlingStrategy;
+import io.camunda.client.metrics.MetricsRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefactoredCommandWrapperTest {
+
+    private FinalCommandStep<Object> command;
+    private DefaultCommandExceptionHandlingStrategy strategy;
+    private final AtomicInteger completions = new AtomicInteger();
+    private final AtomicReference<Throwable> completionError = new AtomicReference<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        command = mock(FinalCommandStep.class);
+        strategy = mock(DefaultCommandExceptionHandlingStrategy.class);
+    }
+
+    private RefactoredCommandWrapper wrapper() {
+        return new RefactoredCommandWrapper(command, Long.MAX_VALUE, "test", strategy, mock(MetricsRecorder.class),
+                new MetricsRecorder.CounterMetricsContext("test", Map.of(), 1))
+                .withCompletionListener((latencyNanos, error) -> {
+                    completions.incrementAndGet();
+                    completionError.set(error);
+                });
+    }
+
+    @Test
+    void success_notifiesListenerOnce() {
+        when(command.send()).thenReturn(TestFuture.completed("ok"));
+
+        wrapper().executeAsync();
+
+        assertEquals(1, completions.get());
+        assertNull(completionError.get());
+    }
+
+    @Test
+    void failureWithoutRetry_notifiesListenerWithError() {
+        RuntimeException error = new RuntimeException("boom");
+        when(command.send()).thenReturn(TestFuture.failed(error));
+
+        wrapper().executeAsync();
+
+        assertEquals(1, completions.get());
+        assertSame(error, completionError.get());
+    }
+
+    @Test
+    void retriedFailure_notifiesListenerOnlyOnFinalOutcome() {
+        when(command.send())
+                .thenReturn(TestFuture.failed(new RuntimeException("retry me")))
+                .thenReturn(TestFuture.completed("ok"));
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.schedule(any(Runnable.class), any(Long.class), any(TimeUnit.class))).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        });
+        doAnswer(invocation -> {
+            ((CommandWrapper) invocation.getArgument(0)).scheduleExecutionUsing(scheduler);
+            return null;
+        }).when(strategy).handleCommandError(any(), any());
+
+        wrapper().executeAsync();
+
+        assertEquals(1, completions.get());
+        assertNull(completionError.get());
+    }
+
+    @Test
+    void retryFailingInTurn_notifiesListenerOnlyOnce() {
+        RuntimeException lastError = new RuntimeException("gave up");
+        when(command.send())
+                .thenReturn(TestFuture.failed(new RuntimeException("retry me")))
+                .thenReturn(TestFuture.failed(lastError));
+        // runs the retry right away, so it fails before the first attempt's error handling has returned
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.schedule(any(Runnable.class), any(Long.class), any(TimeUnit.class))).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        });
+        AtomicInteger errors = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (errors.incrementAndGet() == 1) {
+                ((CommandWrapper) invocation.getArgument(0)).scheduleExecutionUsing(scheduler);
+            }
+            return null;
+        }).when(strategy).handleCommandError(any(), any());
+
+        wrapper().executeAsync();
+
+        assertEquals(1, completions.get());
+        assertSame(lastError, completionError.get());
+    }
+
+    static class TestFuture<T> extends CompletableFuture<T> implements CamundaFuture<T> {
+
+        static <T> TestFuture<T> completed(T value) {
+            TestFuture<T> future = new TestFuture<>();
+            future.complete(value);
+            return future;
+        }
+
+        static <T> TestFuture<T> failed(Throwable error) {
+            TestFuture<T> future = new TestFuture<>();
+            future.completeExceptionally(error);
+            return future;
+        }
+
+        @Override
+        public T join(long timeout, TimeUnit unit) {
+            return orTimeout(timeout, unit).join();
+        }
+    }
+}
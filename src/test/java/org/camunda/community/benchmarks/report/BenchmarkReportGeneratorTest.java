@@ -0,0 +1,120 @@
+package org.camunda.community.benchmarks.report;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Recorder;
+import org.camunda.community.benchmarks.StatisticsCollector;
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.config.JobTypeSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BenchmarkReportGeneratorTest {
+
+    private final BenchmarkConfiguration config = new BenchmarkConfiguration();
+    private final StatisticsCollector stats = mock(StatisticsCollector.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BenchmarkReportGenerator generator;
+    private Recorder cycleTimes;
+
+    @BeforeEach
+    void setUp() {
+        config.setWarmupPhaseDurationMillis(10_000);
+        long start = System.currentTimeMillis();
+        generator = new BenchmarkReportGenerator(config, stats, meterRegistry);
+        generator.init();
+        ArgumentCaptor<Recorder> recorder = ArgumentCaptor.forClass(Recorder.class);
+        verify(stats).addCycleTimeRecorder(recorder.capture());
+        cycleTimes = recorder.getValue();
+
+        // 10 seconds of warm-up and 10 of measurement, half a second apart from the phase boundary
+        List<StatsSnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            snapshots.add(new StatsSnapshot(start + 500 + i * 1000L, 100, i * 100L, i * 90L, i * 10L, i * 300L));
+        }
+        when(stats.getSnapshots()).thenReturn(snapshots);
+        when(stats.getExceptionCounts("pi_exception")).thenReturn(Map.of("RESOURCE_EXHAUSTED", 7L));
+        when(stats.getExceptionCounts("jobs_exception")).thenReturn(Map.of());
+    }
+
+    @Test
+    void summarizesPhasesFromSnapshots() {
+        BenchmarkReport report = generator.build();
+
+        assertEquals(2, report.phases().size());
+        BenchmarkReport.Phase warmup = report.phases().get(0);
+        assertEquals(BenchmarkReportGenerator.WARMUP, warmup.name());
+        assertEquals(100, warmup.startedPiPerSecond(), 0.001);
+        BenchmarkReport.Phase measurement = report.phases().get(1);
+        assertEquals(BenchmarkReportGenerator.MEASUREMENT, measurement.name());
+        assertEquals(10, measurement.seconds());
+        assertEquals(100, measurement.goalPiPerSecond(), 0.001);
+        assertEquals(100, measurement.startedPiPerSecond(), 0.001);
+        assertEquals(90, measurement.completedPiPerSecond(), 0.001);
+        assertEquals(10, measurement.backpressurePercent(), 0.001);
+        assertEquals(300, measurement.completedJobsPerSecond(), 0.001);
+
+        assertEquals(19, report.timeline().size());
+        assertEquals(100, report.timeline().get(0).startedPiPerSecond(), 0.001);
+        assertEquals(Map.of("RESOURCE_EXHAUSTED", 7L), report.piExceptions());
+    }
+
+    @Test
+    void reportsExactCycleTimesAndJobTimers() {
+        for (int i = 1; i <= 1000; i++) {
+            cycleTimes.recordValue(i);
+        }
+        Timer.builder("job_timer").tag("type", "benchmark-task").publishPercentiles(0.99).register(meterRegistry)
+                .record(42, TimeUnit.MILLISECONDS);
+
+        BenchmarkReport report = generator.build();
+
+        assertEquals(1000, report.cycleTime().count());
+        assertEquals(990, report.cycleTime().p99(), 1);
+        assertEquals(1000, report.phases().get(0).cycleTime().count());
+        assertEquals(0, report.phases().get(1).cycleTime().count());
+        BenchmarkReport.TimerSummary jobTimer = report.jobLatency().get("benchmark-task");
+        assertEquals(1, jobTimer.count());
+        assertEquals(42, jobTimer.mean(), 0.001);
+    }
+
+    @Test
+    void writesJsonAndHtmlWithConfiguration() throws Exception {
+        JobTypeSettings settings = new JobTypeSettings();
+        settings.setTimeout(Duration.ofMinutes(5));
+        config.getJobTypeSettings().put("benchmark-task", settings);
+        config.setBpmnResource(new Resource[]{new ClassPathResource("bpmn/typical_process.bpmn")});
+        config.setStarterId("starter <1>");
+        Path directory = Files.createTempDirectory("report");
+
+        List<Path> files = generator.write(directory);
+
+        assertEquals(2, files.size());
+        String json = Files.readString(files.get(0));
+        assertTrue(json.contains("\"timeout\" : \"PT5M\""), json);
+        assertTrue(json.contains("class path resource [bpmn/typical_process.bpmn]"), json);
+        assertTrue(json.contains("\"RESOURCE_EXHAUSTED\" : 7"), json);
+        String html = Files.readString(files.get(1));
+        assertTrue(html.contains("<h1>Benchmark report starter &lt;1&gt;</h1>"));
+        assertTrue(html.contains("<polyline"));
+        assertTrue(html.contains("RESOURCE_EXHAUSTED"));
+        assertTrue(files.get(1).getFileName().toString().startsWith("benchmark-report-starter__1_"));
+    }
+}
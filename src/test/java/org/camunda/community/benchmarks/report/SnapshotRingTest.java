@@ -0,0 +1,43 @@
+package org.camunda.community.benchmarks.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotRingTest {
+
+    @Test
+    void keepsOrderBeforeWrappingAround() {
+        SnapshotRing ring = new SnapshotRing(5);
+        assertTrue(ring.toList().isEmpty());
+        ring.add(snapshot(1));
+        ring.add(snapshot(2));
+        assertEquals(List.of(1L, 2L), times(ring));
+    }
+
+    @Test
+    void overwritesOldestSnapshots() {
+        SnapshotRing ring = new SnapshotRing(3);
+        for (int i = 1; i <= 7; i++) {
+            ring.add(snapshot(i));
+        }
+        assertEquals(List.of(5L, 6L, 7L), times(ring));
+    }
+
+    @Test
+    void rejectsEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SnapshotRing(0));
+    }
+
+    private static StatsSnapshot snapshot(long epochMillis) {
+        return new StatsSnapshot(epochMillis, 0, 0, 0, 0, 0);
+    }
+
+    private static List<Long> times(SnapshotRing ring) {
+        return ring.toList().stream().map(StatsSnapshot::epochMillis).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package org.camunda.community.benchmarks.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSeriesWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesCsvRowsPerSecond() throws Exception {
+        Path file = dir.resolve("series/stats.csv");
+        TimeSeriesWriter writer = new TimeSeriesWriter(file, "csv", 1024 * 1024, 3, 1000);
+        writer.open();
+        writer.write(row(1000, 10, 9, 1, 30, 5, 12, 40));
+        writer.write(row(2000, 25, 20, 1, 70, 6, 13, 45));
+        writer.close();
+
+        assertEquals(List.of(TimeSeriesWriter.CSV_HEADER.trim(),
+                "1000,100,10,9,1,30,5,12,40",
+                "2000,100,15,11,0,40,6,13,45"), Files.readAllLines(file));
+    }
+
+    @Test
+    void writesJsonLines() throws Exception {
+        Path file = dir.resolve("stats.jsonl");
+        TimeSeriesWriter writer = new TimeSeriesWriter(file, "jsonl", 1024 * 1024, 3, 1000);
+        writer.open();
+        writer.write(row(1000, 10, 9, 1, 30, 5, 12, 40));
+        writer.close();
+
+        assertEquals(List.of("{\"epoch_millis\":1000,\"goal_pi_per_second\":100,\"pi_started\":10,\"pi_completed\":9,"
+                + "\"pi_backpressure\":1,\"jobs_completed\":30,\"pi_inflight_starts\":5,\"pi_cycletime_p50_ms\":12,"
+                + "\"pi_cycletime_p99_ms\":40}"), Files.readAllLines(file));
+    }
+
+    @Test
+    void appendsToExistingFileWithoutSecondHeader() throws Exception {
+        Path file = dir.resolve("stats.csv");
+        TimeSeriesWriter first = new TimeSeriesWriter(file, "csv", 1024 * 1024, 3, 1000);
+        first.open();
+        first.write(row(1000, 10, 9, 1, 30, 5, 12, 40));
+        first.close();
+        TimeSeriesWriter second = new TimeSeriesWriter(file, "csv", 1024 * 1024, 3, 1000);
+        second.open();
+        second.write(row(5000, 10, 9, 1, 30, 5, 12, 40));
+        second.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).startsWith("5000,"));
+    }
+
+    @Test
+    void rollsOverKeepingMaxFiles() throws Exception {
+        Path file = dir.resolve("stats.csv");
+        // room for the header and about two rows
+        TimeSeriesWriter writer = new TimeSeriesWriter(file, "csv", TimeSeriesWriter.CSV_HEADER.length() + 60, 3, 1000);
+        writer.open();
+        for (int i = 1; i <= 20; i++) {
+            writer.write(row(i * 1000L, i * 10, i * 9, i, i * 30, 5, 12, 40));
+        }
+        writer.close();
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(dir.resolve("stats.csv.1")));
+        assertTrue(Files.exists(dir.resolve("stats.csv.2")));
+        assertFalse(Files.exists(dir.resolve("stats.csv.3")));
+        List<String> current = Files.readAllLines(file);
+        assertEquals(TimeSeriesWriter.CSV_HEADER.trim(), current.get(0));
+        assertTrue(current.get(current.size() - 1).startsWith("20000,"));
+        assertTrue(Files.size(file) <= TimeSeriesWriter.CSV_HEADER.length() + 60);
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeriesWriter(dir.resolve("x"), "xml", 1, 1, 1));
+    }
+
+    private static TimeSeriesWriter.Row row(long epochMillis, long started, long completed, long backpressure,
+                                            long jobs, int inFlight, long p50, long p99) {
+        return new TimeSeriesWriter.Row(new StatsSnapshot(epochMillis, 100, started, completed, backpressure, jobs),
+                inFlight, p50, p99);
+    }
+}
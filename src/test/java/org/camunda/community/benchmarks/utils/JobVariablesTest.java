@@ -0,0 +1,62 @@
+package org.camunda.community.benchmarks.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JobVariablesTest {
+
+    @Test
+    void parse_extractsOnlyTheBenchmarkVariables() {
+        JobVariables variables = JobVariables.parse("""
+                {"payload": {"items": [{"delay": 1}, [2, 3]], "text": "delay"},
+                 "benchmark_start_date_millis": 1700000000123,
+                 "delay": 250,
+                 "benchmark_intended_start_date_millis": 1700000000100,
+                 "benchmark_starter_id": "starter-1"}
+                """);
+
+        assertEquals(250L, variables.delay());
+        assertEquals(1700000000123L, variables.startDateMillis());
+        assertEquals(1700000000100L, variables.intendedStartDateMillis());
+    }
+
+    @Test
+    void parse_missingOrNonNumericVariablesAreNull() {
+        JobVariables variables = JobVariables.parse("{\"delay\": \"soon\", \"benchmark_start_date_millis\": null}");
+
+        assertNull(variables.delay());
+        assertNull(variables.startDateMillis());
+        assertNull(variables.intendedStartDateMillis());
+        assertNull(JobVariables.parse("{}").delay());
+        assertNull(JobVariables.parse(null).delay());
+    }
+
+    @Test
+    void parse_rejectsNonObjects() {
+        assertThrows(IllegalArgumentException.class, () -> JobVariables.parse("[1, 2]"));
+    }
+
+    @Test
+    void fetchVariables_onlyCompletionWorkersFetchTheStartDates() {
+        assertEquals(List.of("delay"), JobVariables.fetchVariables(false));
+        assertEquals(List.of("delay", "benchmark_start_date_millis", "benchmark_intended_start_date_millis"),
+                JobVariables.fetchVariables(true));
+    }
+
+    @Test
+    void hopVariables_writtenByOneWorkerAreReadByTheNext() {
+        String completionVariables = JobVariables.hopVariablesPrefix("task-\"1\"") + 1700000000500L + "}";
+
+        JobVariables variables = JobVariables.parse(completionVariables);
+
+        assertEquals("task-\"1\"", variables.previousJobType());
+        assertEquals(1700000000500L, variables.previousCompletionMillis());
+        assertEquals(List.of("delay", "benchmark_prev_job", "benchmark_prev_job_completed"),
+                JobVariables.fetchVariables(false, true));
+    }
+}
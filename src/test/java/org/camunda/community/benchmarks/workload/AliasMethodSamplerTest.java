@@ -0,0 +1,61 @@
+package org.camunda.community.benchmarks.workload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AliasMethodSamplerTest {
+
+    @Test
+    void sample_followsTheWeights() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put("order", 70.0);
+        weights.put("refund", 20.0);
+        weights.put("audit", 7.0);
+        weights.put("rare", 3.0);
+        AliasMethodSampler<String> sampler = new AliasMethodSampler<>(weights);
+
+        int samples = 200_000;
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            counts.merge(sampler.sample(), 1, Integer::sum);
+        }
+
+        weights.forEach((value, weight) ->
+                assertEquals(weight / 100, counts.get(value) / (double) samples, 0.01, value));
+    }
+
+    @Test
+    void sample_neverPicksZeroWeights() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put("a", 1.0);
+        weights.put("never", 0.0);
+        weights.put("b", 3.0);
+        AliasMethodSampler<String> sampler = new AliasMethodSampler<>(weights);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(false, "never".equals(sampler.sample()));
+        }
+    }
+
+    @Test
+    void singleValue_isAlwaysSampled() {
+        AliasMethodSampler<String> sampler = new AliasMethodSampler<>(Map.of("benchmark", 5.0));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("benchmark", sampler.sample());
+        }
+    }
+
+    @Test
+    void invalidWeights_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasMethodSampler<>(Map.of("a", 0.0)));
+        assertThrows(IllegalArgumentException.class, () -> new AliasMethodSampler<>(Map.of("a", -1.0, "b", 2.0)));
+        assertThrows(IllegalArgumentException.class, () -> new AliasMethodSampler<>(Map.<String, Double>of()));
+    }
+}
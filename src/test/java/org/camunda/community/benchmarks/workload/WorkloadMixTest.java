@@ -0,0 +1,44 @@
+package org.camunda.community.benchmarks.workload;
+
+import org.camunda.community.benchmarks.config.BenchmarkConfiguration;
+import org.camunda.community.benchmarks.config.WorkloadMixEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkloadMixTest {
+
+    @Test
+    void withoutMix_startsOnlyTheBenchmarkProcess() {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        config.setBpmnProcessId("benchmark");
+
+        assertEquals(Map.of("benchmark", 1.0), WorkloadMix.weights(config));
+        assertEquals(0, WorkloadMix.bpmnResources(config).length);
+    }
+
+    @Test
+    void mix_startsItsProcessesAndDeploysAllResourcesOnce() {
+        BenchmarkConfiguration config = new BenchmarkConfiguration();
+        Resource shared = new ClassPathResource("bpmn/typical_process.bpmn");
+        Resource other = new ClassPathResource("bpmn/complex_subprocess.bpmn");
+        config.setBpmnResource(new Resource[] {shared});
+        WorkloadMixEntry order = new WorkloadMixEntry();
+        order.setWeight(70);
+        WorkloadMixEntry subprocess = new WorkloadMixEntry();
+        subprocess.setWeight(30);
+        subprocess.setBpmnResource(new Resource[] {new ClassPathResource("bpmn/typical_process.bpmn"), other});
+        config.getWorkloadMix().put("order", order);
+        config.getWorkloadMix().put("subprocess", subprocess);
+
+        assertEquals(List.of("order", "subprocess"), List.copyOf(WorkloadMix.weights(config).keySet()));
+        assertEquals(30.0, WorkloadMix.weights(config).get("subprocess"));
+        assertArrayEquals(new Resource[] {shared, other}, WorkloadMix.bpmnResources(config));
+    }
+}